@@ -0,0 +1,51 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Allocates the ids of a shard from its own residue modulo the number of shards,
+ * set by the {@code shard} and {@code shards} placeholders, so ids are unique across
+ * shards. Identities are left alone when there is a single shard, and otherwise
+ * restart above the ids already allocated.
+ */
+public class V2__Shard_identities extends BaseJavaMigration {
+    private static final List<String> TABLES = Arrays.asList("owner", "pet");
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Map<String, String> placeholders = context.getConfiguration().getPlaceholders();
+        long shard = Long.parseLong(placeholders.getOrDefault("shard", "1"));
+        long shards = Long.parseLong(placeholders.getOrDefault("shards", "1"));
+        if (shards <= 1) {
+            return;
+        }
+        try (Statement statement = context.getConnection().createStatement()) {
+            for (String table : TABLES) {
+                long max;
+                try (ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+                    resultSet.next();
+                    max = resultSet.getLong(1);
+                }
+                statement.execute("ALTER TABLE " + table + " MODIFY id NUMBER GENERATED ALWAYS AS IDENTITY" +
+                        " (START WITH " + start(max, shard, shards) + " INCREMENT BY " + shards + ")");
+            }
+        }
+    }
+
+    /**
+     * @param max The largest id already allocated
+     * @param shard The shard, from 1 to the number of shards
+     * @param shards The number of shards
+     * @return The smallest id above {@code max} congruent to {@code shard} modulo {@code shards}
+     */
+    public static long start(long max, long shard, long shards) {
+        return max + 1 + Math.floorMod(shard - (max + 1), shards);
+    }
+}
@@ -0,0 +1,117 @@
+package example.micronaut;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.scheduling.annotation.Scheduled;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Singleton;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Adjusts the maximum size of each Hikari pool within {@code pool.adaptive}
+ * bounds. A pool grows while callers wait for connections for a significant
+ * fraction of the time their statements take, unless statement time is itself
+ * rising, and shrinks while connections are idle and nobody waits.
+ */
+@Singleton
+@Requires(property = "pool.adaptive.enabled", value = "true")
+public class AdaptivePoolSizer {
+    private static final Logger LOG = LoggerFactory.getLogger(AdaptivePoolSizer.class);
+
+    private final ConnectionPoolMetrics connectionPoolMetrics;
+    private final PoolConfiguration.Adaptive configuration;
+    private final Map<String, Sample> samples = new ConcurrentHashMap<>();
+
+    AdaptivePoolSizer(ConnectionPoolMetrics connectionPoolMetrics, PoolConfiguration configuration) {
+        this.connectionPoolMetrics = connectionPoolMetrics;
+        this.configuration = configuration.getAdaptive();
+    }
+
+    @Scheduled(fixedDelay = "${pool.adaptive.interval:10s}")
+    void resize() throws SQLException {
+        for (Map.Entry<String, ConnectionPoolMetrics.Pool> entry : connectionPoolMetrics.getPools().entrySet()) {
+            ConnectionPoolMetrics.Pool pool = entry.getValue();
+            if (!pool.dataSource.isWrapperFor(HikariDataSource.class)) {
+                continue;
+            }
+            HikariDataSource hikari = pool.dataSource.unwrap(HikariDataSource.class);
+            HikariPoolMXBean poolBean = hikari.getHikariPoolMXBean();
+            Sample current = new Sample(pool);
+            Sample previous = samples.put(entry.getKey(), current);
+            if (poolBean == null || previous == null) {
+                continue;
+            }
+            long acquisitions = current.acquisitions - previous.acquisitions;
+            long statements = current.statements - previous.statements;
+            if (acquisitions == 0 || statements == 0) {
+                continue;
+            }
+            current.meanStatementNanos = (double) (current.statementNanos - previous.statementNanos) / statements;
+            double meanWaitNanos = (double) (current.waitNanos - previous.waitNanos) / acquisitions;
+
+            int size = hikari.getHikariConfigMXBean().getMaximumPoolSize();
+            int target = targetSize(
+                    size,
+                    meanWaitNanos,
+                    current.meanStatementNanos,
+                    previous.meanStatementNanos,
+                    poolBean.getIdleConnections(),
+                    configuration
+            );
+            if (target != size) {
+                LOG.info("Resizing pool {} from {} to {} connections (mean wait {}us, mean statement {}us)",
+                        entry.getKey(), size, target, (long) meanWaitNanos / 1000, (long) current.meanStatementNanos / 1000);
+                if (hikari.getHikariConfigMXBean().getMinimumIdle() > target) {
+                    hikari.getHikariConfigMXBean().setMinimumIdle(target);
+                }
+                hikari.getHikariConfigMXBean().setMaximumPoolSize(target);
+            }
+        }
+    }
+
+    /**
+     * @param size The current maximum pool size
+     * @param meanWaitNanos The mean time callers waited for a connection
+     * @param meanStatementNanos The mean statement time
+     * @param previousMeanStatementNanos The mean statement time of the previous interval, or zero if unknown
+     * @param idle The number of idle connections
+     * @param configuration The bounds and thresholds
+     * @return The new maximum pool size
+     */
+    static int targetSize(int size,
+                          double meanWaitNanos,
+                          double meanStatementNanos,
+                          double previousMeanStatementNanos,
+                          int idle,
+                          PoolConfiguration.Adaptive configuration) {
+        boolean databaseSlowing = previousMeanStatementNanos > 0
+                && meanStatementNanos > previousMeanStatementNanos * configuration.getLatencyTolerance();
+        if (meanWaitNanos > meanStatementNanos * configuration.getGrowRatio() && !databaseSlowing) {
+            return Math.min(configuration.getMaxSize(), size + configuration.getStep());
+        }
+        if (meanWaitNanos < meanStatementNanos * configuration.getShrinkRatio() && idle >= configuration.getStep()) {
+            return Math.max(configuration.getMinSize(), size - configuration.getStep());
+        }
+        return Math.max(configuration.getMinSize(), Math.min(configuration.getMaxSize(), size));
+    }
+
+    private static final class Sample {
+        final long waitNanos;
+        final long acquisitions;
+        final long statementNanos;
+        final long statements;
+        double meanStatementNanos;
+
+        Sample(ConnectionPoolMetrics.Pool pool) {
+            this.waitNanos = pool.waitNanos.sum();
+            this.acquisitions = pool.acquisitions.sum();
+            this.statementNanos = pool.statementNanos.sum();
+            this.statements = pool.statements.sum();
+        }
+    }
+}
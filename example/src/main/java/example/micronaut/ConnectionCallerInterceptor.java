@@ -0,0 +1,38 @@
+package example.micronaut;
+
+import io.micronaut.aop.MethodInterceptor;
+import io.micronaut.aop.MethodInvocationContext;
+import io.micronaut.core.order.Ordered;
+
+import javax.inject.Singleton;
+
+/**
+ * Attributes the connections used by a method to that method in
+ * {@link ConnectionPoolMetrics}. Runs before any transaction is started so that
+ * the connection acquired for the transaction is attributed too.
+ */
+@Singleton
+public class ConnectionCallerInterceptor implements MethodInterceptor<Object, Object>, Ordered {
+    private final ConnectionPoolMetrics connectionPoolMetrics;
+
+    public ConnectionCallerInterceptor(ConnectionPoolMetrics connectionPoolMetrics) {
+        this.connectionPoolMetrics = connectionPoolMetrics;
+    }
+
+    @Override
+    public Object intercept(MethodInvocationContext<Object, Object> context) {
+        String previous = connectionPoolMetrics.callerStarted(
+                context.getDeclaringType().getSimpleName() + "." + context.getMethodName()
+        );
+        try {
+            return context.proceed();
+        } finally {
+            connectionPoolMetrics.callerCompleted(previous);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,189 @@
+package example.micronaut;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.scheduling.annotation.Scheduled;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Singleton;
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how long callers wait for and hold pooled connections, tagged by the
+ * {@link OwnerOperations} method that asked for them, and reports connections
+ * held for longer than {@code pool.leak-threshold} as leaked.
+ */
+@Singleton
+public class ConnectionPoolMetrics {
+    private static final Logger LOG = LoggerFactory.getLogger(ConnectionPoolMetrics.class);
+    private static final String NO_CALLER = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final PoolConfiguration configuration;
+    private final ThreadLocal<String> caller = new ThreadLocal<>();
+    private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+    private final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+
+    public ConnectionPoolMetrics(MeterRegistry meterRegistry, PoolConfiguration configuration) {
+        this.meterRegistry = meterRegistry;
+        this.configuration = configuration;
+    }
+
+    /**
+     * Registers a connection pool.
+     * @param name The name of the data source
+     * @param dataSource The pool
+     */
+    void register(String name, DataSource dataSource) {
+        Pool pool = new Pool(dataSource);
+        pools.put(name, pool);
+        Gauge.builder("pool.connections.leaked", pool.leaked, AtomicInteger::get)
+                .tag("pool", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return The registered pools by data source name
+     */
+    Map<String, Pool> getPools() {
+        return pools;
+    }
+
+    /**
+     * Marks the start of a call that may use connections on the current thread.
+     * @param method The calling method, such as {@code OwnerService.getPets}
+     * @return The previous caller, to be passed to {@link #callerCompleted(String)}
+     */
+    String callerStarted(String method) {
+        String previous = caller.get();
+        caller.set(method);
+        return previous;
+    }
+
+    /**
+     * @param previous The value returned by {@link #callerStarted(String)}
+     */
+    void callerCompleted(String previous) {
+        if (previous == null) {
+            caller.remove();
+        } else {
+            caller.set(previous);
+        }
+    }
+
+    /**
+     * Records a connection taken from the pool.
+     * @param name The name of the data source
+     * @param waitNanos How long the caller waited for the connection
+     * @return The lease, to be passed to {@link #released(Lease)}
+     */
+    Lease acquired(String name, long waitNanos) {
+        String method = caller.get() != null ? caller.get() : NO_CALLER;
+        Timer.builder("pool.connections.wait")
+                .tag("pool", name)
+                .tag("caller", method)
+                .register(meterRegistry)
+                .record(waitNanos, TimeUnit.NANOSECONDS);
+        Pool pool = pools.get(name);
+        if (pool != null) {
+            pool.waitNanos.add(waitNanos);
+            pool.acquisitions.increment();
+        }
+        Lease lease = new Lease(name, method);
+        leases.add(lease);
+        return lease;
+    }
+
+    /**
+     * Records a connection returned to the pool.
+     * @param lease The lease returned by {@link #acquired(String, long)}
+     */
+    void released(Lease lease) {
+        if (!leases.remove(lease)) {
+            return;
+        }
+        Timer.builder("pool.connections.hold")
+                .tag("pool", lease.pool)
+                .tag("caller", lease.caller)
+                .register(meterRegistry)
+                .record(System.nanoTime() - lease.acquiredAt, TimeUnit.NANOSECONDS);
+        if (lease.leaked) {
+            Pool pool = pools.get(lease.pool);
+            if (pool != null) {
+                pool.leaked.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Records the duration of a statement, used as the database latency when sizing the pool.
+     * @param name The name of the data source
+     * @param nanos How long the statement took
+     */
+    void statementExecuted(String name, long nanos) {
+        Pool pool = pools.get(name);
+        if (pool != null) {
+            pool.statementNanos.add(nanos);
+            pool.statements.increment();
+        }
+    }
+
+    /**
+     * Reports connections that have been held for longer than the leak threshold.
+     */
+    @Scheduled(fixedDelay = "${pool.leak-check-interval:30s}")
+    void detectLeaks() {
+        long threshold = configuration.getLeakThreshold().toNanos();
+        long now = System.nanoTime();
+        for (Lease lease : leases) {
+            if (!lease.leaked && now - lease.acquiredAt > threshold) {
+                lease.leaked = true;
+                meterRegistry.counter("pool.connections.leaks", "pool", lease.pool, "caller", lease.caller).increment();
+                Pool pool = pools.get(lease.pool);
+                if (pool != null) {
+                    pool.leaked.incrementAndGet();
+                }
+                LOG.warn("Connection from pool {} held by {} for more than {}", lease.pool, lease.caller, configuration.getLeakThreshold());
+            }
+        }
+    }
+
+    /**
+     * Cumulative statistics of a pool.
+     */
+    static final class Pool {
+        final DataSource dataSource;
+        final LongAdder waitNanos = new LongAdder();
+        final LongAdder acquisitions = new LongAdder();
+        final LongAdder statementNanos = new LongAdder();
+        final LongAdder statements = new LongAdder();
+        final AtomicInteger leaked = new AtomicInteger();
+
+        Pool(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+
+    /**
+     * A connection that has been taken from a pool and not yet returned.
+     */
+    static final class Lease {
+        final String pool;
+        final String caller;
+        final long acquiredAt = System.nanoTime();
+        volatile boolean leaked;
+
+        Lease(String pool, String caller) {
+            this.pool = pool;
+            this.caller = caller;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package example.micronaut;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A consistent hash ring. Each node is placed on the ring at a number of
+ * virtual points and a key belongs to the node at the first point at or after
+ * the hash of the key, so adding or removing a node only moves the keys of that
+ * node.
+ */
+final class ConsistentHash {
+    private final long[] points;
+    private final String[] nodes;
+
+    /**
+     * @param nodes The nodes
+     * @param virtualNodes The number of points per node
+     */
+    ConsistentHash(Collection<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("At least one node is required");
+        }
+        int size = nodes.size() * virtualNodes;
+        long[] points = new long[size];
+        String[] owners = new String[size];
+        Point[] ring = new Point[size];
+        int i = 0;
+        for (String node : nodes) {
+            for (int v = 0; v < virtualNodes; v++) {
+                ring[i++] = new Point(hash(node + "#" + v), node);
+            }
+        }
+        Arrays.sort(ring, (a, b) -> Long.compare(a.hash, b.hash));
+        for (i = 0; i < size; i++) {
+            points[i] = ring[i].hash;
+            owners[i] = ring[i].node;
+        }
+        this.points = points;
+        this.nodes = owners;
+    }
+
+    /**
+     * @param key The key
+     * @return The node the key belongs to
+     */
+    String node(String key) {
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return nodes[index == points.length ? 0 : index];
+    }
+
+    /**
+     * A 64-bit FNV-1a hash of the UTF-8 bytes of the key, finished with the
+     * SplitMix64 mixer to spread similar keys across the ring.
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+
+    private static final class Point {
+        final long hash;
+        final String node;
+
+        Point(long hash, String node) {
+            this.hash = hash;
+            this.node = node;
+        }
+    }
+}
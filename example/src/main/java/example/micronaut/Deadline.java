@@ -0,0 +1,120 @@
+package example.micronaut;
+
+import io.micronaut.http.context.ServerRequestContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The point in time by which an HTTP request must complete. Work started on
+ * behalf of a request whose deadline has expired, or whose client has gone away,
+ * is skipped, and JDBC statements still running when the client disconnects are
+ * cancelled.
+ */
+public final class Deadline {
+    /**
+     * The request attribute that holds the deadline of the request.
+     */
+    public static final String ATTRIBUTE = "deadline";
+    private static final Logger LOG = LoggerFactory.getLogger(Deadline.class);
+
+    private final long expiresAtNanos;
+    private final Set<Statement> statements = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    /**
+     * @param timeout The time from now by which the work must complete
+     * @return A new deadline
+     */
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * @return The deadline of the HTTP request being handled by the current thread, if any
+     */
+    public static Optional<Deadline> current() {
+        return ServerRequestContext.currentRequest()
+                .flatMap(request -> request.getAttribute(ATTRIBUTE, Deadline.class));
+    }
+
+    /**
+     * @return The time left, which is zero or negative once expired
+     */
+    public Duration remaining() {
+        return cancelled ? Duration.ZERO : Duration.ofNanos(expiresAtNanos - System.nanoTime());
+    }
+
+    /**
+     * @return Whether the deadline has passed or the request was cancelled
+     */
+    public boolean isExpired() {
+        return cancelled || expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * @throws DeadlineExceededException if the deadline has expired
+     */
+    public void check() {
+        if (isExpired()) {
+            throw new DeadlineExceededException(cancelled ? "Request cancelled by client" : "Request deadline exceeded");
+        }
+    }
+
+    /**
+     * Limits a statement to the remaining time and cancels it if the request is
+     * cancelled while it runs. Must be followed by {@link #completed(Statement)}.
+     *
+     * @param statement The statement about to execute
+     * @throws SQLException if the deadline has already expired
+     */
+    void executing(Statement statement) throws SQLException {
+        if (isExpired()) {
+            throw new SQLTimeoutException("Request deadline exceeded before execution");
+        }
+        // JDBC timeouts are in whole seconds, so round up rather than disable with zero
+        int seconds = (int) Math.max(1, (remaining().toMillis() + 999) / 1000);
+        int current = statement.getQueryTimeout();
+        statement.setQueryTimeout(current > 0 ? Math.min(current, seconds) : seconds);
+        statements.add(statement);
+        if (cancelled) {
+            cancel(statement);
+        }
+    }
+
+    /**
+     * @param statement A statement previously passed to {@link #executing(Statement)}
+     */
+    void completed(Statement statement) {
+        statements.remove(statement);
+    }
+
+    /**
+     * Marks the request as cancelled and cancels any statements running on its behalf.
+     */
+    public void cancel() {
+        cancelled = true;
+        for (Statement statement : statements) {
+            cancel(statement);
+        }
+    }
+
+    private void cancel(Statement statement) {
+        try {
+            statement.cancel();
+        } catch (SQLException e) {
+            LOG.debug("Failed to cancel statement: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package example.micronaut;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+
+@ConfigurationProperties("deadline")
+public class DeadlineConfiguration {
+    private boolean enabled = true;
+    @NotNull
+    private Duration defaultTimeout = Duration.ofSeconds(10);
+    @NotNull
+    private Duration maxTimeout = Duration.ofSeconds(30);
+    @NotBlank
+    private String header = "X-Request-Timeout";
+
+    /**
+     * Whether requests are given a deadline
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * The deadline of requests that match no configured route
+     */
+    public Duration getDefaultTimeout() {
+        return defaultTimeout;
+    }
+
+    public void setDefaultTimeout(Duration defaultTimeout) {
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    /**
+     * The longest deadline a client may ask for with the request header
+     */
+    public Duration getMaxTimeout() {
+        return maxTimeout;
+    }
+
+    public void setMaxTimeout(Duration maxTimeout) {
+        this.maxTimeout = maxTimeout;
+    }
+
+    /**
+     * The request header with which a client can override the deadline, such as {@code 500ms}
+     */
+    public String getHeader() {
+        return header;
+    }
+
+    public void setHeader(String header) {
+        this.header = header;
+    }
+}
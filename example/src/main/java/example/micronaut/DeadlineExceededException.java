@@ -0,0 +1,14 @@
+package example.micronaut;
+
+/**
+ * Thrown when the deadline of a request has expired before its work completed.
+ */
+public class DeadlineExceededException extends RuntimeException {
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+    public DeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
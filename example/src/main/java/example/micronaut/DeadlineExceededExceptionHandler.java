@@ -0,0 +1,22 @@
+package example.micronaut;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.annotation.Produces;
+import io.micronaut.http.hateoas.JsonError;
+import io.micronaut.http.server.exceptions.ExceptionHandler;
+
+import javax.inject.Singleton;
+
+@Produces
+@Singleton
+@Requires(classes = {DeadlineExceededException.class, ExceptionHandler.class})
+public class DeadlineExceededExceptionHandler implements ExceptionHandler<DeadlineExceededException, HttpResponse<?>> {
+    @Override
+    public HttpResponse<?> handle(HttpRequest request, DeadlineExceededException exception) {
+        return HttpResponse.status(HttpStatus.GATEWAY_TIMEOUT)
+                .body(new JsonError(exception.getMessage()));
+    }
+}
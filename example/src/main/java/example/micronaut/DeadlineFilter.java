@@ -0,0 +1,93 @@
+package example.micronaut;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.convert.ConversionService;
+import io.micronaut.core.order.Ordered;
+import io.micronaut.core.util.PathMatcher;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.HttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import io.micronaut.http.server.netty.NettyHttpRequest;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.reactivex.Flowable;
+import org.reactivestreams.Publisher;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Gives each request a {@link Deadline} from the request header, the first
+ * matching route in {@code deadline.routes} or the default timeout, and cancels
+ * it if the client closes the connection before the response is written.
+ */
+@Filter("/**")
+@Requires(property = "deadline.enabled", notEquals = "false")
+public class DeadlineFilter implements HttpServerFilter {
+    private static final Duration FOREVER = Duration.ofSeconds(Long.MAX_VALUE);
+
+    private final DeadlineConfiguration configuration;
+    private final List<DeadlineRouteConfiguration> routes;
+
+    public DeadlineFilter(DeadlineConfiguration configuration, List<DeadlineRouteConfiguration> routes) {
+        this.configuration = configuration;
+        this.routes = routes;
+    }
+
+    @Override
+    public Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+        Deadline deadline = Deadline.after(timeout(request));
+        request.setAttribute(Deadline.ATTRIBUTE, deadline);
+        if (!(request instanceof NettyHttpRequest)) {
+            return chain.proceed(request);
+        }
+        // connections are kept alive across requests, so stop listening once this one completes
+        Channel channel = ((NettyHttpRequest<?>) request).getChannelHandlerContext().channel();
+        ChannelFutureListener onClose = future -> deadline.cancel();
+        channel.closeFuture().addListener(onClose);
+        return Flowable.fromPublisher(chain.proceed(request))
+                .doFinally(() -> channel.closeFuture().removeListener(onClose));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    /**
+     * @param request The request
+     * @return The timeout of the request, at most {@code deadline.max-timeout}
+     */
+    Duration timeout(HttpRequest<?> request) {
+        Optional<Duration> requested = request.getHeaders().get(configuration.getHeader(), String.class)
+                .flatMap(DeadlineFilter::parse);
+        if (requested.isPresent()) {
+            Duration timeout = requested.get();
+            return timeout.compareTo(configuration.getMaxTimeout()) > 0 ? configuration.getMaxTimeout() : timeout;
+        }
+        String path = request.getPath();
+        for (DeadlineRouteConfiguration route : routes) {
+            if (PathMatcher.ANT.matches(route.getPattern(), path)) {
+                return route.getTimeout();
+            }
+        }
+        return configuration.getDefaultTimeout();
+    }
+
+    private static Optional<Duration> parse(String value) {
+        String trimmed = value.trim();
+        try {
+            // a bare number is taken to be milliseconds, otherwise a duration such as 2s
+            if (!trimmed.isEmpty() && trimmed.chars().allMatch(Character::isDigit)) {
+                return Optional.of(Duration.ofMillis(Long.parseLong(trimmed)));
+            }
+            return ConversionService.SHARED.convert(trimmed, Duration.class);
+        } catch (NumberFormatException | ArithmeticException e) {
+            // too large to represent, which is clamped to the maximum timeout like any other long timeout
+            return Optional.of(FOREVER);
+        }
+    }
+}
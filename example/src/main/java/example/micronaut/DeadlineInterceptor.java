@@ -0,0 +1,34 @@
+package example.micronaut;
+
+import io.micronaut.aop.MethodInterceptor;
+import io.micronaut.aop.MethodInvocationContext;
+
+import javax.inject.Singleton;
+import java.util.Optional;
+
+/**
+ * Skips methods invoked on behalf of a request whose {@link Deadline} has
+ * expired, and reports failures caused by the deadline, such as a cancelled or
+ * timed out query, as a {@link DeadlineExceededException}.
+ */
+@Singleton
+public class DeadlineInterceptor implements MethodInterceptor<Object, Object> {
+    @Override
+    public Object intercept(MethodInvocationContext<Object, Object> context) {
+        Optional<Deadline> deadline = Deadline.current();
+        if (!deadline.isPresent()) {
+            return context.proceed();
+        }
+        deadline.get().check();
+        try {
+            return context.proceed();
+        } catch (DeadlineExceededException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            if (deadline.get().isExpired()) {
+                throw new DeadlineExceededException("Request deadline exceeded during " + context.getMethodName(), e);
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package example.micronaut;
+
+import io.micronaut.context.annotation.EachProperty;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+
+@EachProperty("deadline.routes")
+public class DeadlineRouteConfiguration {
+    @NotBlank
+    private String pattern;
+    @NotNull
+    private Duration timeout;
+
+    /**
+     * The Ant style path pattern of the route, such as {@code /owners/*}{@code /pets/**}
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    public void setPattern(String pattern) {
+        this.pattern = pattern;
+    }
+
+    /**
+     * The deadline of requests matching the pattern
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+}
@@ -0,0 +1,71 @@
+package example.micronaut;
+
+import io.micronaut.core.annotation.Introspected;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts of pets by {@link Pet.PetHealth}, overall and for the owners with the
+ * most pets requiring vaccination, plus the distribution of owner ages.
+ */
+@Introspected
+public class HealthStatistics {
+    private final Map<Pet.PetHealth, Long> totals;
+    private final List<OwnerHealth> owners;
+    private final Map<String, Long> ageDistribution;
+
+    public HealthStatistics(Map<Pet.PetHealth, Long> totals,
+                            List<OwnerHealth> owners,
+                            Map<String, Long> ageDistribution) {
+        this.totals = totals;
+        this.owners = owners;
+        this.ageDistribution = ageDistribution;
+    }
+
+    /**
+     * The number of pets in each health state
+     */
+    public Map<Pet.PetHealth, Long> getTotals() {
+        return totals;
+    }
+
+    /**
+     * The owners with the most pets requiring vaccination
+     */
+    public List<OwnerHealth> getOwners() {
+        return owners;
+    }
+
+    /**
+     * The number of owners in each age band, keyed by band such as {@code 30-39}
+     */
+    public Map<String, Long> getAgeDistribution() {
+        return ageDistribution;
+    }
+
+    @Introspected
+    public static class OwnerHealth {
+        private final String name;
+        private final Map<Pet.PetHealth, Long> pets;
+
+        public OwnerHealth(String name, Map<Pet.PetHealth, Long> pets) {
+            this.name = name;
+            this.pets = pets;
+        }
+
+        /**
+         * The name of the owner
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * The number of the owner's pets in each health state
+         */
+        public Map<Pet.PetHealth, Long> getPets() {
+            return pets;
+        }
+    }
+}
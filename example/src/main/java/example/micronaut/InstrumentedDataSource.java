@@ -0,0 +1,189 @@
+package example.micronaut;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * A {@link DataSource} that times every statement executed through the
+ * connections it hands out and reports them to the {@link SqlRecorder}. When a
+ * statement is executed on behalf of an HTTP request, its query timeout is
+ * limited to the time left before the request's {@link Deadline}. The time
+ * spent waiting for and holding each connection is reported to the
+ * {@link ConnectionPoolMetrics}.
+ */
+public class InstrumentedDataSource implements DataSource {
+    private final String name;
+    private final DataSource target;
+    private final SqlRecorder sqlRecorder;
+    private final ConnectionPoolMetrics connectionPoolMetrics;
+
+    public InstrumentedDataSource(String name,
+                                  DataSource target,
+                                  SqlRecorder sqlRecorder,
+                                  ConnectionPoolMetrics connectionPoolMetrics) {
+        this.name = name;
+        this.target = target;
+        this.sqlRecorder = sqlRecorder;
+        this.connectionPoolMetrics = connectionPoolMetrics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = target.getConnection();
+        return connection(connection, System.nanoTime() - start);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = target.getConnection(username, password);
+        return connection(connection, System.nanoTime() - start);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return target.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        target.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        target.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return target.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return target.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(target) ? iface.cast(target) : target.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(target) || target.isWrapperFor(iface);
+    }
+
+    private Connection connection(Connection connection, long waitNanos) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class[] {Connection.class},
+                new ConnectionHandler(connection, connectionPoolMetrics.acquired(name, waitNanos))
+        );
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+        private final ConnectionPoolMetrics.Lease lease;
+
+        ConnectionHandler(Connection target, ConnectionPoolMetrics.Lease lease) {
+            this.target = target;
+            this.lease = lease;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("close")) {
+                // released only once, even if the connection is closed repeatedly
+                connectionPoolMetrics.released(lease);
+            }
+            Object result = InstrumentedDataSource.invoke(target, method, args);
+            if (result instanceof Statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                Class<?> type = result instanceof CallableStatement ? CallableStatement.class
+                        : result instanceof PreparedStatement ? PreparedStatement.class
+                        : Statement.class;
+                return Proxy.newProxyInstance(
+                        Statement.class.getClassLoader(),
+                        new Class[] {type},
+                        new StatementHandler((Statement) result, sql)
+                );
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String sql;
+        private Object[] parameters;
+        private int parameterCount;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                String executed = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+                Deadline deadline = Deadline.current().orElse(null);
+                if (deadline != null) {
+                    deadline.executing(target);
+                }
+                long start = System.nanoTime();
+                try {
+                    return InstrumentedDataSource.invoke(target, method, args);
+                } finally {
+                    long nanos = System.nanoTime() - start;
+                    sqlRecorder.statementExecuted(executed, parameters, parameterCount, nanos);
+                    connectionPoolMetrics.statementExecuted(InstrumentedDataSource.this.name, nanos);
+                    if (deadline != null) {
+                        deadline.completed(target);
+                    }
+                }
+            } else if (name.startsWith("set")
+                    && method.getDeclaringClass() != Statement.class
+                    && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                recordParameter((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameterCount = 0;
+            }
+            return InstrumentedDataSource.invoke(target, method, args);
+        }
+
+        private void recordParameter(int index, Object value) {
+            if (parameters == null) {
+                parameters = new Object[Math.max(index, 4)];
+            } else if (parameters.length < index) {
+                parameters = Arrays.copyOf(parameters, Math.max(index, parameters.length * 2));
+            }
+            parameters[index - 1] = value;
+            parameterCount = Math.max(parameterCount, index);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package example.micronaut;
+
+import io.micronaut.context.event.BeanCreatedEvent;
+import io.micronaut.context.event.BeanCreatedEventListener;
+import io.micronaut.core.order.Ordered;
+
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import javax.sql.DataSource;
+
+/**
+ * Wraps every {@link DataSource} in an {@link InstrumentedDataSource} and
+ * registers it with the {@link ConnectionPoolMetrics}.
+ *
+ * <p>Runs before the transaction aware wrapping so that the data source resolved
+ * for Hibernate, which unwraps any {@code DelegatingDataSource}, is the
+ * instrumented one.</p>
+ */
+@Singleton
+public class InstrumentedDataSourceListener implements BeanCreatedEventListener<DataSource>, Ordered {
+    private final Provider<SqlRecorder> sqlRecorder;
+    private final Provider<ConnectionPoolMetrics> connectionPoolMetrics;
+
+    public InstrumentedDataSourceListener(Provider<SqlRecorder> sqlRecorder,
+                                          Provider<ConnectionPoolMetrics> connectionPoolMetrics) {
+        this.sqlRecorder = sqlRecorder;
+        this.connectionPoolMetrics = connectionPoolMetrics;
+    }
+
+    @Override
+    public DataSource onCreated(BeanCreatedEvent<DataSource> event) {
+        String name = event.getBeanIdentifier().getName();
+        ConnectionPoolMetrics metrics = connectionPoolMetrics.get();
+        metrics.register(name, event.getBean());
+        return new InstrumentedDataSource(name, event.getBean(), sqlRecorder.get(), metrics);
+    }
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE;
+    }
+}
@@ -4,6 +4,7 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 
@@ -12,12 +13,18 @@ import javax.validation.constraints.NotBlank;
  */
 @Entity
 public class Owner {
+    /**
+     * The maximum age of an owner, as ages are stored as {@code NUMBER(2)}.
+     */
+    public static final int MAX_AGE = 99;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     @NotBlank
     private String name;
     @Min(18)
+    @Max(MAX_AGE)
     private int age;
 
     public void setName(String name) {
@@ -0,0 +1,21 @@
+package example.micronaut;
+
+/**
+ * Published when an {@link Owner} has been added. Listeners that maintain
+ * in-memory state should use {@code @TransactionalEventListener} so that they
+ * only see owners whose transaction committed.
+ */
+public class OwnerAddedEvent {
+    private final Owner owner;
+
+    public OwnerAddedEvent(Owner owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * @return The owner that was added
+     */
+    public Owner getOwner() {
+        return owner;
+    }
+}
@@ -5,6 +5,7 @@ import io.micronaut.http.annotation.Body;
 import io.micronaut.http.annotation.Controller;
 import io.micronaut.http.annotation.Get;
 import io.micronaut.http.annotation.Post;
+import io.micronaut.http.annotation.QueryValue;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 
 import javax.validation.Valid;
@@ -23,6 +24,17 @@ public class OwnerController {
         return ownerOperations.getInitialOwners();
     }
 
+    /**
+     * Searches for owners by a full, partial or misspelled name
+     * @param q The name to search for
+     * @param limit The maximum number of owners to return
+     * @return The matching owners, best match first
+     */
+    @Get("/search")
+    Collection<Owner> search(@QueryValue String q, @QueryValue(defaultValue = "10") int limit) {
+        return ownerOperations.searchOwners(q, limit);
+    }
+
     @Post("/")
     Owner add(@Valid @Body Owner owner) {
         ownerOperations.addOwner(owner);
@@ -2,15 +2,23 @@ package example.micronaut;
 
 import java.util.Collection;
 
+@EnforceDeadline
+@TrackConnections
 public interface OwnerOperations {
     @Logged
     Collection<Owner> getInitialOwners();
 
+    @InvalidatesResponseCache
     void addOwner(Owner owner);
 
+    Collection<Owner> searchOwners(String query, int limit);
+
     Pet getPet(String owner, String pet);
 
     Collection<Pet> getPets(String owner);
 
     Collection<Pet> getPetsWithHeath(String owner, Pet.PetHealth health);
+
+    @InvalidatesResponseCache
+    void updatePetHealth(String owner, String pet, Pet.PetHealth health);
 }
@@ -7,6 +7,7 @@ import io.micronaut.data.repository.CrudRepository;
 import java.util.Collection;
 
 @Repository
+@Instrumented
 public interface OwnerRepository extends CrudRepository<Owner, Long> {
     @NonNull
     @Override
@@ -0,0 +1,266 @@
+package example.micronaut;
+
+import io.micronaut.transaction.annotation.TransactionalEventListener;
+
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An in-memory trigram index over {@link Owner#getName()} supporting prefix,
+ * substring and fuzzy lookups without scanning the owner table.
+ *
+ * <p>Names are lower cased and padded with two leading blanks and one trailing
+ * blank before being split into trigrams, so that short prefixes such as
+ * {@code "bo"} still produce grams ({@code "  b"}, {@code " bo"}). Each gram maps
+ * to a posting list of owner ordinals which is only ever appended to.</p>
+ *
+ * <p>A query shorter than a trigram cannot share a gram with a name that only
+ * contains it in the middle, so such queries are answered by scanning the names
+ * instead.</p>
+ */
+@Singleton
+public class OwnerSearchIndex {
+    /**
+     * The maximum number of results a single search may return.
+     */
+    public static final int MAX_RESULTS = 100;
+    private static final int GRAM_SIZE = 3;
+    private static final double MIN_SIMILARITY = 0.4d;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Owner> owners = new ArrayList<>();
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    /**
+     * Replaces the contents of the index with the given owners.
+     * @param allOwners The owners to index
+     */
+    public void rebuild(Iterable<Owner> allOwners) {
+        lock.writeLock().lock();
+        try {
+            owners.clear();
+            names.clear();
+            postings.clear();
+            for (Owner owner : allOwners) {
+                doAdd(owner);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a single owner to the index.
+     * @param owner The owner
+     */
+    public void add(Owner owner) {
+        lock.writeLock().lock();
+        try {
+            doAdd(owner);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes an owner once the transaction that added it has committed.
+     * @param event The event
+     */
+    @TransactionalEventListener
+    void onOwnerAdded(OwnerAddedEvent event) {
+        add(event.getOwner());
+    }
+
+    /**
+     * @return The number of indexed owners
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return owners.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Searches for owners whose name matches the given query. Exact matches rank
+     * above prefix matches, which rank above substring matches, which rank above
+     * fuzzy matches. Ties are broken by trigram similarity and then by name.
+     *
+     * @param query The partial name to search for
+     * @param limit The maximum number of results, capped at {@link #MAX_RESULTS}
+     * @return The matching owners, best match first
+     */
+    public List<Owner> search(String query, int limit) {
+        String normalized = normalize(query);
+        int max = Math.min(limit, MAX_RESULTS);
+        if (normalized.isEmpty() || max <= 0) {
+            return Collections.emptyList();
+        }
+        // the query may be a partial name so it is not terminated with a trailing blank
+        Set<String> queryGrams = grams("  " + normalized);
+
+        lock.readLock().lock();
+        try {
+            if (normalized.length() < GRAM_SIZE) {
+                return scan(normalized, max);
+            }
+            List<Postings> lists = new ArrayList<>(queryGrams.size());
+            for (String gram : queryGrams) {
+                Postings list = postings.get(gram);
+                if (list != null) {
+                    lists.add(list);
+                }
+            }
+
+            // posting lists are sorted by ordinal, so merge them to count the shared grams of each candidate
+            PriorityQueue<Match> best = new PriorityQueue<>(max + 1, Match.WORST_FIRST);
+            int[] cursors = new int[lists.size()];
+            while (true) {
+                int ordinal = Integer.MAX_VALUE;
+                for (int i = 0; i < cursors.length; i++) {
+                    Postings list = lists.get(i);
+                    if (cursors[i] < list.size) {
+                        ordinal = Math.min(ordinal, list.ordinals[cursors[i]]);
+                    }
+                }
+                if (ordinal == Integer.MAX_VALUE) {
+                    break;
+                }
+                int shared = 0;
+                for (int i = 0; i < cursors.length; i++) {
+                    Postings list = lists.get(i);
+                    if (cursors[i] < list.size && list.ordinals[cursors[i]] == ordinal) {
+                        cursors[i]++;
+                        shared++;
+                    }
+                }
+
+                String name = names.get(ordinal);
+                // Dice coefficient, a padded name of n characters has n + 1 trigrams
+                double similarity = 2d * shared / (queryGrams.size() + name.length() + 1);
+                int rank = rank(name, normalized);
+                if (rank == 0 && similarity < MIN_SIMILARITY) {
+                    continue;
+                }
+                best.offer(new Match(owners.get(ordinal), name, rank, similarity));
+                if (best.size() > max) {
+                    best.poll();
+                }
+            }
+
+            return results(best);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Owner> scan(String query, int max) {
+        PriorityQueue<Match> best = new PriorityQueue<>(max + 1, Match.WORST_FIRST);
+        for (int ordinal = 0; ordinal < names.size(); ordinal++) {
+            String name = names.get(ordinal);
+            int rank = rank(name, query);
+            if (rank > 0) {
+                best.offer(new Match(owners.get(ordinal), name, rank, (double) query.length() / name.length()));
+                if (best.size() > max) {
+                    best.poll();
+                }
+            }
+        }
+        return results(best);
+    }
+
+    private static List<Owner> results(PriorityQueue<Match> best) {
+        Match[] matches = best.toArray(new Match[0]);
+        Arrays.sort(matches, Match.WORST_FIRST.reversed());
+        List<Owner> results = new ArrayList<>(matches.length);
+        for (Match match : matches) {
+            results.add(match.owner);
+        }
+        return results;
+    }
+
+    private void doAdd(Owner owner) {
+        String name = normalize(owner.getName());
+        int ordinal = owners.size();
+        owners.add(owner);
+        names.add(name);
+        for (String gram : grams("  " + name + " ")) {
+            postings.computeIfAbsent(gram, g -> new Postings()).add(ordinal);
+        }
+    }
+
+    private static int rank(String name, String query) {
+        if (name.equals(query)) {
+            return 3;
+        } else if (name.startsWith(query)) {
+            return 2;
+        } else if (name.contains(query)) {
+            return 1;
+        }
+        return 0;
+    }
+
+    static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        return name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String padded) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    /**
+     * A growable, append-only list of owner ordinals.
+     */
+    private static final class Postings {
+        int[] ordinals = new int[2];
+        int size;
+
+        void add(int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+    }
+
+    private static final class Match {
+        static final Comparator<Match> WORST_FIRST = Comparator
+                .comparingInt((Match m) -> m.rank)
+                .thenComparingDouble(m -> m.similarity)
+                .thenComparing((Match m) -> m.name, Comparator.reverseOrder());
+
+        final Owner owner;
+        final String name;
+        final int rank;
+        final double similarity;
+
+        Match(Owner owner, String name, int rank, double similarity) {
+            this.owner = owner;
+            this.name = name;
+            this.rank = rank;
+            this.similarity = similarity;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package example.micronaut;
 
+import io.micronaut.context.event.ApplicationEventPublisher;
 import io.micronaut.context.event.StartupEvent;
 import io.micronaut.runtime.event.annotation.EventListener;
 
@@ -14,32 +15,55 @@ public class OwnerService implements OwnerOperations {
     private final OwnerRepository ownerRepository;
     private final PetRepository petRepository;
     private final List<OwnerConfiguration> ownerConfigurations;
+    private final OwnerSearchIndex ownerSearchIndex;
+    private final ShardConfiguration shardConfiguration;
+    private final ApplicationEventPublisher eventPublisher;
 
     OwnerService(OwnerRepository ownerRepository,
                  PetRepository petRepository,
-                 List<OwnerConfiguration> ownerConfigurations) {
+                 List<OwnerConfiguration> ownerConfigurations,
+                 OwnerSearchIndex ownerSearchIndex,
+                 ShardConfiguration shardConfiguration,
+                 ApplicationEventPublisher eventPublisher) {
         this.ownerRepository = ownerRepository;
         this.petRepository = petRepository;
         this.ownerConfigurations = ownerConfigurations;
+        this.ownerSearchIndex = ownerSearchIndex;
+        this.shardConfiguration = shardConfiguration;
+        this.eventPublisher = eventPublisher;
     }
 
     @EventListener
     @Transactional
     void init(StartupEvent startupEvent) {
+        if (shardConfiguration.isEnabled()) {
+            // each owner is seeded on its own shard by ShardedOwnerService
+            return;
+        }
         if (ownerRepository.count() == 0) {
             for (OwnerConfiguration ownerConfiguration : ownerConfigurations) {
-                Owner owner = ownerConfiguration.create();
-                ownerRepository.save(owner);
-                List<Pet> pets = ownerConfiguration.getPets().stream().map(n -> {
-                            Pet pet = new Pet();
-                            pet.setName(n);
-                            pet.setOwner(owner);
-                            return pet;
-                        }
-                ).collect(Collectors.toList());
-                petRepository.saveAll(pets);
+                seed(ownerConfiguration);
             }
         }
+        ownerSearchIndex.rebuild(ownerRepository.findAll());
+    }
+
+    /**
+     * Saves a configured owner and their pets.
+     * @param ownerConfiguration The owner configuration
+     */
+    @Transactional
+    void seed(OwnerConfiguration ownerConfiguration) {
+        Owner owner = ownerConfiguration.create();
+        ownerRepository.save(owner);
+        List<Pet> pets = ownerConfiguration.getPets().stream().map(n -> {
+                    Pet pet = new Pet();
+                    pet.setName(n);
+                    pet.setOwner(owner);
+                    return pet;
+                }
+        ).collect(Collectors.toList());
+        petRepository.saveAll(pets);
     }
 
     @Override
@@ -51,6 +75,12 @@ public class OwnerService implements OwnerOperations {
     @Transactional
     public void addOwner(Owner owner) {
         ownerRepository.save(owner);
+        eventPublisher.publishEvent(new OwnerAddedEvent(owner));
+    }
+
+    @Override
+    public Collection<Owner> searchOwners(String query, int limit) {
+        return ownerSearchIndex.search(query, limit);
     }
 
     @Override
@@ -67,4 +97,14 @@ public class OwnerService implements OwnerOperations {
     public Collection<Pet> getPetsWithHeath(String owner, Pet.PetHealth health) {
         return petRepository.findByOwnerNameAndHealth(owner, health);
     }
+
+    @Override
+    @Transactional
+    public void updatePetHealth(String owner, String pet, Pet.PetHealth health) {
+        Pet found = petRepository.findByNameAndOwnerName(pet, owner);
+        if (found != null && found.getHealth() != health) {
+            petRepository.updatePet(found.getId(), health);
+            eventPublisher.publishEvent(new PetHealthChangedEvent(found, health));
+        }
+    }
 }
@@ -0,0 +1,259 @@
+package example.micronaut;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable, column-wise copy of every {@link Owner} and {@link Pet}.
+ *
+ * <p>Owners are sorted by name so that a name lookup is a binary search. The pets
+ * of the owner at index {@code i} are stored contiguously between
+ * {@code petOffsets[i]} and {@code petOffsets[i + 1]}. Pet names are de-duplicated
+ * when the snapshot is built, ages fit in a byte as they are at most
+ * {@link Owner#MAX_AGE} and {@link Pet.PetHealth} is stored as its ordinal.</p>
+ */
+final class OwnerSnapshot {
+    private static final Pet.PetHealth[] HEALTH = Pet.PetHealth.values();
+
+    private final long[] ownerIds;
+    private final String[] ownerNames;
+    private final byte[] ownerAges;
+    private final int[] petOffsets;
+    private final long[] petIds;
+    private final String[] petNames;
+    private final byte[] petHealth;
+
+    private OwnerSnapshot(long[] ownerIds,
+                          String[] ownerNames,
+                          byte[] ownerAges,
+                          int[] petOffsets,
+                          long[] petIds,
+                          String[] petNames,
+                          byte[] petHealth) {
+        this.ownerIds = ownerIds;
+        this.ownerNames = ownerNames;
+        this.ownerAges = ownerAges;
+        this.petOffsets = petOffsets;
+        this.petIds = petIds;
+        this.petNames = petNames;
+        this.petHealth = petHealth;
+    }
+
+    /**
+     * @return A builder to stream owners and their pets into
+     */
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return The number of owners in the snapshot
+     */
+    int ownerCount() {
+        return ownerIds.length;
+    }
+
+    /**
+     * @return The number of pets in the snapshot
+     */
+    int petCount() {
+        return petIds.length;
+    }
+
+    Collection<Owner> getOwners() {
+        List<Owner> owners = new ArrayList<>(ownerIds.length);
+        for (int i = 0; i < ownerIds.length; i++) {
+            owners.add(owner(i));
+        }
+        return owners;
+    }
+
+    Pet getPet(String owner, String pet) {
+        for (int o = firstOwner(owner); o < ownerIds.length && ownerNames[o].equals(owner); o++) {
+            for (int p = petOffsets[o]; p < petOffsets[o + 1]; p++) {
+                if (petNames[p].equals(pet)) {
+                    return pet(p, owner(o));
+                }
+            }
+        }
+        return null;
+    }
+
+    Collection<Pet> getPets(String owner, Pet.PetHealth health) {
+        List<Pet> pets = new ArrayList<>();
+        for (int o = firstOwner(owner); o < ownerIds.length && ownerNames[o].equals(owner); o++) {
+            Owner petOwner = owner(o);
+            for (int p = petOffsets[o]; p < petOffsets[o + 1]; p++) {
+                if (health == null || petHealth[p] == health.ordinal()) {
+                    pets.add(pet(p, petOwner));
+                }
+            }
+        }
+        return pets;
+    }
+
+    private int firstOwner(String name) {
+        int low = 0;
+        int high = ownerNames.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ownerNames[mid].compareTo(name) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private Owner owner(int index) {
+        Owner owner = new Owner();
+        owner.setId(ownerIds[index]);
+        owner.setName(ownerNames[index]);
+        owner.setAge(ownerAges[index]);
+        return owner;
+    }
+
+    private Pet pet(int index, Owner owner) {
+        Pet pet = new Pet();
+        pet.setId(petIds[index]);
+        pet.setName(petNames[index]);
+        pet.setHealth(HEALTH[petHealth[index]]);
+        pet.setOwner(owner);
+        return pet;
+    }
+
+    /**
+     * Accumulates owners and their pets into growable columns, so that a snapshot
+     * can be built from a result set without materializing entities.
+     */
+    static final class Builder {
+        private final Map<String, String> petNames = new HashMap<>();
+        private long[] ownerIds = new long[16];
+        private String[] ownerNames = new String[16];
+        private byte[] ownerAges = new byte[16];
+        private int ownerCount;
+        private int[] petOwners = new int[16];
+        private long[] petIds = new long[16];
+        private String[] petNameColumn = new String[16];
+        private byte[] petHealth = new byte[16];
+        private int petCount;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds an owner. Pets added after it belong to it, until the next owner is added.
+         * @param id The owner id
+         * @param name The owner name
+         * @param age The owner age, at most {@link Owner#MAX_AGE}
+         * @return This builder
+         */
+        Builder owner(long id, String name, int age) {
+            if (ownerCount == ownerIds.length) {
+                int size = ownerCount * 2;
+                ownerIds = Arrays.copyOf(ownerIds, size);
+                ownerNames = Arrays.copyOf(ownerNames, size);
+                ownerAges = Arrays.copyOf(ownerAges, size);
+            }
+            ownerIds[ownerCount] = id;
+            ownerNames[ownerCount] = name;
+            ownerAges[ownerCount] = (byte) age;
+            ownerCount++;
+            return this;
+        }
+
+        /**
+         * Adds a pet of the most recently added owner.
+         * @param id The pet id
+         * @param name The pet name
+         * @param health The pet health
+         * @return This builder
+         */
+        Builder pet(long id, String name, Pet.PetHealth health) {
+            if (ownerCount == 0) {
+                throw new IllegalStateException("Pet [" + id + "] was added before any owner");
+            }
+            if (petCount == petIds.length) {
+                int size = petCount * 2;
+                petOwners = Arrays.copyOf(petOwners, size);
+                petIds = Arrays.copyOf(petIds, size);
+                petNameColumn = Arrays.copyOf(petNameColumn, size);
+                petHealth = Arrays.copyOf(petHealth, size);
+            }
+            petOwners[petCount] = ownerCount - 1;
+            petIds[petCount] = id;
+            petNameColumn[petCount] = petNames.computeIfAbsent(name, n -> n);
+            petHealth[petCount] = (byte) health.ordinal();
+            petCount++;
+            return this;
+        }
+
+        /**
+         * @return The id of the most recently added owner, or -1 if there is none
+         */
+        long lastOwnerId() {
+            return ownerCount == 0 ? -1 : ownerIds[ownerCount - 1];
+        }
+
+        /**
+         * @return The snapshot, with owners sorted by name
+         */
+        OwnerSnapshot build() {
+            int[] position = new int[ownerCount];
+            boolean sorted = true;
+            for (int o = 0; o < ownerCount; o++) {
+                position[o] = o;
+                sorted &= o == 0 || compare(o - 1, o) <= 0;
+            }
+            if (!sorted) {
+                // rows are normally read in name order already, unless the database collation differs from String order
+                Integer[] order = new Integer[ownerCount];
+                for (int o = 0; o < ownerCount; o++) {
+                    order[o] = o;
+                }
+                Arrays.sort(order, this::compare);
+                for (int o = 0; o < ownerCount; o++) {
+                    position[order[o]] = o;
+                }
+            }
+            long[] sortedIds = new long[ownerCount];
+            String[] sortedNames = new String[ownerCount];
+            byte[] sortedAges = new byte[ownerCount];
+            for (int o = 0; o < ownerCount; o++) {
+                sortedIds[position[o]] = ownerIds[o];
+                sortedNames[position[o]] = ownerNames[o];
+                sortedAges[position[o]] = ownerAges[o];
+            }
+
+            // a counting sort of the pets by owner position
+            int[] petOffsets = new int[ownerCount + 1];
+            for (int p = 0; p < petCount; p++) {
+                petOffsets[position[petOwners[p]] + 1]++;
+            }
+            for (int o = 0; o < ownerCount; o++) {
+                petOffsets[o + 1] += petOffsets[o];
+            }
+            int[] next = Arrays.copyOf(petOffsets, ownerCount);
+            long[] sortedPetIds = new long[petCount];
+            String[] sortedPetNames = new String[petCount];
+            byte[] sortedPetHealth = new byte[petCount];
+            for (int p = 0; p < petCount; p++) {
+                int slot = next[position[petOwners[p]]]++;
+                sortedPetIds[slot] = petIds[p];
+                sortedPetNames[slot] = petNameColumn[p];
+                sortedPetHealth[slot] = petHealth[p];
+            }
+            return new OwnerSnapshot(sortedIds, sortedNames, sortedAges, petOffsets, sortedPetIds, sortedPetNames, sortedPetHealth);
+        }
+
+        private int compare(int a, int b) {
+            int result = ownerNames[a].compareTo(ownerNames[b]);
+            return result != 0 ? result : Long.compare(ownerIds[a], ownerIds[b]);
+        }
+    }
+}
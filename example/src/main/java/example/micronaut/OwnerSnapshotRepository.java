@@ -0,0 +1,50 @@
+package example.micronaut;
+
+import io.micronaut.data.annotation.Repository;
+import io.micronaut.data.repository.GenericRepository;
+import io.micronaut.transaction.annotation.ReadOnly;
+
+import javax.persistence.EntityManager;
+import java.util.stream.Stream;
+
+/**
+ * Loads an {@link OwnerSnapshot} by streaming a scalar projection of every owner
+ * and their pets straight into its columns, so that no entities are created.
+ */
+@Repository
+@Instrumented
+public abstract class OwnerSnapshotRepository implements GenericRepository<Owner, Long> {
+    private static final int FETCH_SIZE = 1000;
+
+    private final EntityManager entityManager;
+
+    public OwnerSnapshotRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Reads owners and their pets with a single outer joined query, so that the
+     * snapshot is consistent and includes owners without pets.
+     * @return The snapshot
+     */
+    @ReadOnly
+    public OwnerSnapshot load() {
+        OwnerSnapshot.Builder builder = OwnerSnapshot.builder();
+        try (Stream<Object[]> rows = entityManager.createQuery(
+                "SELECT o.id, o.name, o.age, p.id, p.name, p.health FROM Owner o LEFT JOIN Pet p ON p.owner = o " +
+                        "ORDER BY o.name, o.id, p.id",
+                Object[].class
+        ).setHint("org.hibernate.fetchSize", FETCH_SIZE).getResultStream()) {
+            rows.forEach(row -> {
+                long ownerId = ((Number) row[0]).longValue();
+                if (ownerId != builder.lastOwnerId()) {
+                    builder.owner(ownerId, (String) row[1], ((Number) row[2]).intValue());
+                }
+                if (row[3] != null) {
+                    builder.pet(((Number) row[3]).longValue(), (String) row[4], (Pet.PetHealth) row[5]);
+                }
+            });
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,30 @@
+package example.micronaut;
+
+/**
+ * Published when the {@link Pet.PetHealth} of a {@link Pet} has changed. Listeners
+ * that maintain in-memory state should use {@code @TransactionalEventListener}
+ * so that they only see changes whose transaction committed.
+ */
+public class PetHealthChangedEvent {
+    private final Pet pet;
+    private final Pet.PetHealth health;
+
+    public PetHealthChangedEvent(Pet pet, Pet.PetHealth health) {
+        this.pet = pet;
+        this.health = health;
+    }
+
+    /**
+     * @return The pet as it was before the change, with its owner populated
+     */
+    public Pet getPet() {
+        return pet;
+    }
+
+    /**
+     * @return The new health of the pet
+     */
+    public Pet.PetHealth getHealth() {
+        return health;
+    }
+}
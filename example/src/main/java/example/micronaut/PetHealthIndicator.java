@@ -9,17 +9,27 @@ import org.reactivestreams.Publisher;
 import javax.inject.Singleton;
 import java.util.Collections;
 
+/**
+ * Reports the service as down while any pet requires vaccination, querying every
+ * shard concurrently.
+ */
 @Singleton
 public class PetHealthIndicator implements HealthIndicator {
     private final PetRepository petRepository;
+    private final ShardRouter shardRouter;
 
-    public PetHealthIndicator(PetRepository petRepository) {
+    public PetHealthIndicator(PetRepository petRepository, ShardRouter shardRouter) {
         this.petRepository = petRepository;
+        this.shardRouter = shardRouter;
     }
 
     @Override
     public Publisher<HealthResult> getResult() {
-        return petRepository.existsByHealth(Pet.PetHealth.REQUIRES_VACCINATION)
+        return Flowable.fromIterable(shardRouter.getShards())
+                .flatMapSingle(shard -> shardRouter.single(shard, () ->
+                        petRepository.existsByHealth(Pet.PetHealth.REQUIRES_VACCINATION)
+                ))
+                .any(Boolean::booleanValue)
                 .flatMapPublisher((petsNeedVaccine) -> {
                     String message = petsNeedVaccine ? "Pets Need Vaccine" : "All Pets Vaccinated";
                     HealthResult result = HealthResult.builder("pets")
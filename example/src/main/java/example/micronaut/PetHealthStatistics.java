@@ -0,0 +1,233 @@
+package example.micronaut;
+
+import io.micronaut.runtime.event.annotation.EventListener;
+import io.micronaut.runtime.server.event.ServerStartupEvent;
+import io.micronaut.scheduling.annotation.Scheduled;
+import io.micronaut.transaction.annotation.TransactionalEventListener;
+
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pet health and owner age aggregates that are updated as owners and pets are
+ * written, rather than computed with a GROUP BY on every request.
+ *
+ * <p>Totals are {@link LongAdder}s so that concurrent writers do not contend.
+ * Per owner counts are plain longs keyed by owner id, and every owner is kept in
+ * a tree ordered by the number of pets requiring vaccination, so a count can move
+ * an owner up or down in O(log owners) and reads only walk the owners returned.</p>
+ *
+ * <p>Added owners and health changes made through {@link OwnerService} are applied
+ * once their transaction has committed. Other writes, such as seeding or
+ * {@link PetRepository#updatePet}, are picked up when the counters are periodically
+ * rebuilt from the database. Changes made while a rebuild is in flight may be lost
+ * until the next one. When sharding is enabled the rebuild sums the counts of every
+ * shard.</p>
+ */
+@Singleton
+public class PetHealthStatistics {
+    /**
+     * The maximum number of owners that can be requested from {@link #getStatistics(int)}.
+     */
+    public static final int MAX_TOP_OWNERS = 100;
+    private static final Pet.PetHealth[] HEALTH = Pet.PetHealth.values();
+    private static final int AGE_BANDS = Owner.MAX_AGE / 10 + 1;
+
+    private final PetStatisticsRepository petStatisticsRepository;
+    private final ShardRouter shardRouter;
+    private volatile Counters counters = new Counters();
+
+    PetHealthStatistics(PetStatisticsRepository petStatisticsRepository, ShardRouter shardRouter) {
+        this.petStatisticsRepository = petStatisticsRepository;
+        this.shardRouter = shardRouter;
+    }
+
+    @EventListener
+    void init(ServerStartupEvent startupEvent) {
+        reconcile();
+    }
+
+    /**
+     * Rebuilds the counters from the database.
+     */
+    @Scheduled(fixedDelay = "${stats.reconcile-interval:10m}", initialDelay = "${stats.reconcile-interval:10m}")
+    void reconcile() {
+        Counters counters = new Counters();
+        for (String shard : shardRouter.getShards()) {
+            shardRouter.run(shard, () -> {
+                for (Object[] row : petStatisticsRepository.countPetsByOwnerAndHealth()) {
+                    counters.addPets(
+                            ((Number) row[0]).longValue(),
+                            (String) row[1],
+                            (Pet.PetHealth) row[2],
+                            ((Number) row[3]).longValue()
+                    );
+                }
+                for (Object[] row : petStatisticsRepository.countOwnersByAge()) {
+                    counters.addOwners(((Number) row[0]).intValue(), ((Number) row[1]).longValue());
+                }
+            });
+        }
+        this.counters = counters;
+    }
+
+    /**
+     * Records a newly added owner once the transaction that added it has committed.
+     * @param event The event
+     */
+    @TransactionalEventListener
+    void onOwnerAdded(OwnerAddedEvent event) {
+        ownerAdded(event.getOwner());
+    }
+
+    /**
+     * Records a newly added owner.
+     * @param owner The owner
+     */
+    public void ownerAdded(Owner owner) {
+        counters.addOwners(owner.getAge(), 1);
+    }
+
+    /**
+     * Records a health change once the transaction that made it has committed.
+     * @param event The event
+     */
+    @TransactionalEventListener
+    void onPetHealthChanged(PetHealthChangedEvent event) {
+        petHealthChanged(event.getPet(), event.getHealth());
+    }
+
+    /**
+     * Records a newly added pet.
+     * @param pet The pet, with its owner populated
+     */
+    public void petAdded(Pet pet) {
+        Owner owner = pet.getOwner();
+        counters.addPets(owner.getId(), owner.getName(), pet.getHealth(), 1);
+    }
+
+    /**
+     * Records a change of a pet's health.
+     * @param pet The pet as it was before the change, with its owner populated
+     * @param health The new health of the pet
+     */
+    public void petHealthChanged(Pet pet, Pet.PetHealth health) {
+        Owner owner = pet.getOwner();
+        counters.movePet(owner.getId(), owner.getName(), pet.getHealth(), health);
+    }
+
+    /**
+     * @param topOwners The number of owners to include, at most {@link #MAX_TOP_OWNERS}
+     * @return The current aggregates
+     */
+    public HealthStatistics getStatistics(int topOwners) {
+        Counters counters = this.counters;
+        List<HealthStatistics.OwnerHealth> owners = counters.top(Math.min(topOwners, MAX_TOP_OWNERS));
+
+        Map<String, Long> ages = new LinkedHashMap<>();
+        for (int i = 0; i < AGE_BANDS; i++) {
+            long count = counters.ages[i].sum();
+            if (count > 0) {
+                ages.put(i * 10 + "-" + (i * 10 + 9), count);
+            }
+        }
+        Map<Pet.PetHealth, Long> totals = new EnumMap<>(Pet.PetHealth.class);
+        for (Pet.PetHealth health : HEALTH) {
+            totals.put(health, counters.totals[health.ordinal()].sum());
+        }
+        return new HealthStatistics(totals, owners, ages);
+    }
+
+    private static LongAdder[] adders(int size) {
+        LongAdder[] adders = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static final class Counters {
+        final LongAdder[] totals = adders(HEALTH.length);
+        final LongAdder[] ages = adders(AGE_BANDS);
+        // guarded by this
+        private final Map<Long, OwnerPets> owners = new HashMap<>();
+        private final TreeSet<OwnerPets> ranking = new TreeSet<>(OwnerPets.BEST_FIRST);
+
+        void addPets(long owner, String name, Pet.PetHealth health, long count) {
+            totals[health.ordinal()].add(count);
+            synchronized (this) {
+                add(owner, name, health, count);
+            }
+        }
+
+        void movePet(long owner, String name, Pet.PetHealth from, Pet.PetHealth to) {
+            totals[from.ordinal()].decrement();
+            totals[to.ordinal()].increment();
+            synchronized (this) {
+                add(owner, name, from, -1);
+                add(owner, name, to, 1);
+            }
+        }
+
+        void addOwners(int age, long count) {
+            ages[Math.max(0, Math.min(age / 10, AGE_BANDS - 1))].add(count);
+        }
+
+        synchronized List<HealthStatistics.OwnerHealth> top(int count) {
+            List<HealthStatistics.OwnerHealth> top = new ArrayList<>(Math.max(0, Math.min(count, ranking.size())));
+            Iterator<OwnerPets> i = ranking.iterator();
+            while (top.size() < count && i.hasNext()) {
+                OwnerPets owner = i.next();
+                Map<Pet.PetHealth, Long> pets = new EnumMap<>(Pet.PetHealth.class);
+                for (Pet.PetHealth health : HEALTH) {
+                    pets.put(health, owner.pets[health.ordinal()]);
+                }
+                top.add(new HealthStatistics.OwnerHealth(owner.name, pets));
+            }
+            return top;
+        }
+
+        private void add(long owner, String name, Pet.PetHealth health, long count) {
+            OwnerPets pets = owners.get(owner);
+            boolean added = pets == null;
+            if (added) {
+                pets = new OwnerPets(owner, name);
+                owners.put(owner, pets);
+            }
+            // the tree must not see the count it is ordered by change while the owner is in it
+            boolean moves = health == Pet.PetHealth.REQUIRES_VACCINATION;
+            if (moves && !added) {
+                ranking.remove(pets);
+            }
+            pets.pets[health.ordinal()] += count;
+            if (moves || added) {
+                ranking.add(pets);
+            }
+        }
+    }
+
+    private static final class OwnerPets {
+        static final Comparator<OwnerPets> BEST_FIRST = Comparator
+                .comparingLong((OwnerPets o) -> o.pets[Pet.PetHealth.REQUIRES_VACCINATION.ordinal()]).reversed()
+                .thenComparing(o -> o.name)
+                .thenComparingLong(o -> o.id);
+
+        final long id;
+        final String name;
+        final long[] pets = new long[HEALTH.length];
+
+        OwnerPets(long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import io.micronaut.data.repository.CrudRepository;
 import java.util.Collection;
 
 @Repository
+@Instrumented
 public interface PetRepository extends CrudRepository<Pet, Long> {
     @Join("owner")
     Collection<Pet> findByOwnerName(String owner);
@@ -19,5 +20,11 @@ public interface PetRepository extends CrudRepository<Pet, Long> {
 
     io.reactivex.Single<Boolean> existsByHealth(Pet.PetHealth health);
 
+    /**
+     * Updates a pet in the shard bound to the current thread, or the default data
+     * source. Use {@link OwnerOperations#updatePetHealth} to update the pet in its
+     * owner's shard.
+     */
+    @InvalidatesResponseCache
     void updatePet(@Id Long id, Pet.PetHealth health);
 }
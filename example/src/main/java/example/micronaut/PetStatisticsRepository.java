@@ -0,0 +1,43 @@
+package example.micronaut;
+
+import io.micronaut.data.annotation.Repository;
+import io.micronaut.data.repository.GenericRepository;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.util.List;
+
+/**
+ * Aggregate queries used to reconcile {@link PetHealthStatistics} with the database.
+ */
+@Repository
+@Instrumented
+public abstract class PetStatisticsRepository implements GenericRepository<Pet, Long> {
+    private final EntityManager entityManager;
+
+    public PetStatisticsRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * @return Rows of owner id, owner name, {@link Pet.PetHealth} and pet count
+     */
+    @Transactional
+    public List<Object[]> countPetsByOwnerAndHealth() {
+        return entityManager.createQuery(
+                "SELECT o.id, o.name, p.health, COUNT(p) FROM Pet p JOIN p.owner o GROUP BY o.id, o.name, p.health",
+                Object[].class
+        ).getResultList();
+    }
+
+    /**
+     * @return Rows of owner age and owner count
+     */
+    @Transactional
+    public List<Object[]> countOwnersByAge() {
+        return entityManager.createQuery(
+                "SELECT o.age, COUNT(o) FROM Owner o GROUP BY o.age",
+                Object[].class
+        ).getResultList();
+    }
+}
@@ -0,0 +1,125 @@
+package example.micronaut;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+
+@ConfigurationProperties("pool")
+public class PoolConfiguration {
+    @NotNull
+    private Duration leakThreshold = Duration.ofSeconds(60);
+    private Adaptive adaptive = new Adaptive();
+
+    /**
+     * How long a connection may be held before it is reported as leaked
+     */
+    public Duration getLeakThreshold() {
+        return leakThreshold;
+    }
+
+    public void setLeakThreshold(Duration leakThreshold) {
+        this.leakThreshold = leakThreshold;
+    }
+
+    public Adaptive getAdaptive() {
+        return adaptive;
+    }
+
+    public void setAdaptive(Adaptive adaptive) {
+        this.adaptive = adaptive;
+    }
+
+    @ConfigurationProperties("adaptive")
+    public static class Adaptive {
+        private boolean enabled;
+        @Min(1)
+        private int minSize = 5;
+        @Min(1)
+        private int maxSize = 50;
+        @Min(1)
+        private int step = 2;
+        private double growRatio = 0.5d;
+        private double shrinkRatio = 0.05d;
+        private double latencyTolerance = 1.5d;
+
+        /**
+         * Whether the maximum pool size is adjusted at runtime
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * The smallest maximum pool size to shrink to
+         */
+        public int getMinSize() {
+            return minSize;
+        }
+
+        public void setMinSize(int minSize) {
+            this.minSize = minSize;
+        }
+
+        /**
+         * The largest maximum pool size to grow to
+         */
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        /**
+         * The number of connections to grow or shrink by at a time
+         */
+        public int getStep() {
+            return step;
+        }
+
+        public void setStep(int step) {
+            this.step = step;
+        }
+
+        /**
+         * Grow when the mean connection wait exceeds this fraction of the mean statement time
+         */
+        public double getGrowRatio() {
+            return growRatio;
+        }
+
+        public void setGrowRatio(double growRatio) {
+            this.growRatio = growRatio;
+        }
+
+        /**
+         * Shrink when the mean connection wait is below this fraction of the mean statement time
+         */
+        public double getShrinkRatio() {
+            return shrinkRatio;
+        }
+
+        public void setShrinkRatio(double shrinkRatio) {
+            this.shrinkRatio = shrinkRatio;
+        }
+
+        /**
+         * Do not grow if the mean statement time rose by more than this factor since the
+         * last adjustment, as more connections would only add load to a saturated database
+         */
+        public double getLatencyTolerance() {
+            return latencyTolerance;
+        }
+
+        public void setLatencyTolerance(double latencyTolerance) {
+            this.latencyTolerance = latencyTolerance;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package example.micronaut;
+
+import io.micronaut.aop.MethodInterceptor;
+import io.micronaut.aop.MethodInvocationContext;
+
+import javax.inject.Singleton;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the duration and number of rows returned by each repository method and
+ * tags the statements it issues with the method name.
+ */
+@Singleton
+public class RepositoryMetricsInterceptor implements MethodInterceptor<Object, Object> {
+    private final SqlRecorder sqlRecorder;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsInterceptor(SqlRecorder sqlRecorder) {
+        this.sqlRecorder = sqlRecorder;
+    }
+
+    @Override
+    public Object intercept(MethodInvocationContext<Object, Object> context) {
+        String method = repositoryName(context) + "." + context.getMethodName();
+        String previous = sqlRecorder.repositoryMethodStarted(method);
+        long start = System.nanoTime();
+        Object result = null;
+        try {
+            result = context.proceed();
+            return result;
+        } finally {
+            sqlRecorder.repositoryMethodCompleted(method, previous, System.nanoTime() - start, rows(result));
+        }
+    }
+
+    private String repositoryName(MethodInvocationContext<Object, Object> context) {
+        // inherited methods such as save are declared by CrudRepository, so name them after the annotated repository
+        return repositoryNames.computeIfAbsent(context.getTarget().getClass(), type -> {
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                if (c.isAnnotationPresent(Instrumented.class)) {
+                    return c.getSimpleName();
+                }
+                for (Class<?> i : c.getInterfaces()) {
+                    if (i.isAnnotationPresent(Instrumented.class)) {
+                        return i.getSimpleName();
+                    }
+                }
+            }
+            return context.getDeclaringType().getSimpleName();
+        });
+    }
+
+    private static int rows(Object result) {
+        if (result == null) {
+            return 0;
+        } else if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        } else if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        return 1;
+    }
+}
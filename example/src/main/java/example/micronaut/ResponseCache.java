@@ -0,0 +1,262 @@
+package example.micronaut;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.PooledByteBufAllocator;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds fully encoded response bodies, as JSON or as gzip compressed JSON, in
+ * pooled direct buffers so that repeated reads of unchanged data skip both
+ * serialization and compression. Each encoding is cached separately, and only
+ * once a client has asked for it.
+ *
+ * <p>The cache owns one reference to each buffer and hands out retained
+ * duplicates, which share its memory and are released by Netty once written.
+ * Buffers are retained and released while holding the cache's monitor, so a
+ * buffer is never retained after the cache has released it. Entries are evicted
+ * oldest first once either {@code response-cache.max-entries} or
+ * {@code response-cache.max-bytes} is exceeded.</p>
+ *
+ * <p>Any write to owners or pets, marked with {@link InvalidatesResponseCache},
+ * empties the whole cache both when it starts and once it has completed, and no
+ * response is encoded or stored while a write is in progress or if a write started
+ * after the response was read. Writes this instance does not see, such as those of
+ * other instances, are bounded by {@code response-cache.max-age}, after which an
+ * entry is no longer served.</p>
+ */
+@Singleton
+public class ResponseCache {
+    private static final ByteBufAllocator ALLOCATOR = PooledByteBufAllocator.DEFAULT;
+
+    private final ObjectMapper objectMapper;
+    private final ResponseCacheConfiguration configuration;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private int writesInProgress;
+
+    public ResponseCache(ObjectMapper objectMapper, ResponseCacheConfiguration configuration, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.configuration = configuration;
+        Gauge.builder("response.cache.entries", entries, Map::size).register(meterRegistry);
+        Gauge.builder("response.cache.bytes", bytes, AtomicLong::get)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("response.cache.hit.ratio", this, ResponseCache::hitRatio).register(meterRegistry);
+        FunctionCounter.builder("response.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("response.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("response.cache.evictions", evictions, LongAdder::sum).register(meterRegistry);
+    }
+
+    /**
+     * @return The current generation, to be passed to {@link #put(String, Object, long, boolean)}
+     */
+    long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Looks up a cached response.
+     * @param key The route and arguments
+     * @param gzip Whether the gzip encoding is wanted
+     * @return A retained duplicate of the encoded body which the caller must release, if cached
+     */
+    Optional<ByteBuf> get(String key, boolean gzip) {
+        synchronized (this) {
+            Entry entry = entries.get(entryKey(key, gzip));
+            if (entry != null && entry.isExpired()) {
+                insertionOrder.remove(entry);
+                remove(entry);
+            } else if (entry != null) {
+                hits.increment();
+                return Optional.of(entry.body.retainedDuplicate());
+            }
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Encodes a response body in the wanted encoding and caches it, unless the
+     * data may have changed since the given generation, in which case the body
+     * is not encoded at all.
+     * @param key The route and arguments
+     * @param body The response body
+     * @param generation The generation read before the body was loaded
+     * @param gzip Whether the gzip encoding is wanted
+     * @return The encoded body which the caller must release, or empty if the body was not encoded
+     * @throws IOException If the body cannot be encoded
+     */
+    Optional<ByteBuf> put(String key, Object body, long generation, boolean gzip) throws IOException {
+        if (!isCurrent(generation)) {
+            return Optional.empty();
+        }
+        long expiresAt = System.nanoTime() + configuration.getMaxAge().toNanos();
+        Entry entry = new Entry(entryKey(key, gzip), encode(body, gzip), expiresAt);
+        synchronized (this) {
+            if (!isCurrent(generation) || entry.size() > configuration.getMaxBytes()) {
+                // hand the cache's reference over to the caller
+                return Optional.of(entry.body);
+            }
+            Entry previous = entries.put(entry.key, entry);
+            if (previous != null) {
+                insertionOrder.remove(previous);
+                bytes.addAndGet(-previous.size());
+                previous.release();
+            }
+            insertionOrder.add(entry);
+            bytes.addAndGet(entry.size());
+            ByteBuf response = entry.body.retainedDuplicate();
+            evict();
+            return Optional.of(response);
+        }
+    }
+
+    /**
+     * Marks the start of a write to owners or pets.
+     */
+    synchronized void writeStarted() {
+        writesInProgress++;
+        invalidateAll();
+    }
+
+    /**
+     * Marks the end of a write to owners or pets.
+     */
+    synchronized void writeCompleted() {
+        writesInProgress--;
+        invalidateAll();
+    }
+
+    /**
+     * Removes every cached response.
+     */
+    @PreDestroy
+    synchronized void invalidateAll() {
+        generation.incrementAndGet();
+        Iterator<Entry> i = insertionOrder.iterator();
+        while (i.hasNext()) {
+            Entry entry = i.next();
+            i.remove();
+            remove(entry);
+        }
+    }
+
+    /**
+     * @return The number of cached responses
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return The number of off-heap bytes held by the cache
+     */
+    long bytes() {
+        return bytes.get();
+    }
+
+    private synchronized boolean isCurrent(long generation) {
+        return writesInProgress == 0 && generation == this.generation.get();
+    }
+
+    private static String entryKey(String key, boolean gzip) {
+        // request URIs never contain spaces
+        return gzip ? key + " gzip" : key;
+    }
+
+    private double hitRatio() {
+        long hits = this.hits.sum();
+        long total = hits + misses.sum();
+        return total == 0 ? 0d : (double) hits / total;
+    }
+
+    private void evict() {
+        while (entries.size() > configuration.getMaxEntries() || bytes.get() > configuration.getMaxBytes()) {
+            Entry oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            if (remove(oldest)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Removes an entry that has been taken out of the insertion order and releases it.
+     * @return Whether the entry was still cached
+     */
+    private boolean remove(Entry entry) {
+        boolean removed = entries.remove(entry.key, entry);
+        if (removed) {
+            bytes.addAndGet(-entry.size());
+        }
+        entry.release();
+        return removed;
+    }
+
+    private ByteBuf encode(Object body, boolean gzip) throws IOException {
+        ByteBuf encoded = ALLOCATOR.directBuffer();
+        try {
+            OutputStream identity = new ByteBufOutputStream(encoded);
+            try (OutputStream out = gzip ? new GZIPOutputStream(identity) : identity) {
+                objectMapper.writeValue(out, body);
+            }
+            return encoded;
+        } catch (IOException | RuntimeException e) {
+            encoded.release();
+            throw e;
+        }
+    }
+
+    private static final class Entry {
+        final String key;
+        final ByteBuf body;
+        final long expiresAt;
+
+        Entry(String key, ByteBuf body, long expiresAt) {
+            this.key = key;
+            this.body = body;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired() {
+            return System.nanoTime() - expiresAt >= 0;
+        }
+
+        int size() {
+            return body.capacity();
+        }
+
+        void release() {
+            body.release();
+        }
+    }
+}
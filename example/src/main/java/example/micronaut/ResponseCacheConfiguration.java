@@ -0,0 +1,63 @@
+package example.micronaut;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+
+@ConfigurationProperties("response-cache")
+public class ResponseCacheConfiguration {
+    private boolean enabled = true;
+    @Min(1)
+    private int maxEntries = 1000;
+    @Min(1)
+    private long maxBytes = 64 * 1024 * 1024;
+    @NotNull
+    private Duration maxAge = Duration.ofSeconds(10);
+
+    /**
+     * Whether encoded responses are cached
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * The maximum number of cached responses
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * The maximum number of off-heap bytes held by the cache, counting every encoding
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * How long a response is served from the cache, which bounds how stale it can be after writes the
+     * cache does not see, such as those made by other instances
+     */
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+}
@@ -0,0 +1,115 @@
+package example.micronaut;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.HttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import io.netty.buffer.ByteBuf;
+import io.reactivex.Flowable;
+import org.reactivestreams.Publisher;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Serves {@code GET /owners} and {@code GET /owners/{owner}/pets} from the
+ * {@link ResponseCache}, writing the cached buffers without copying them, and
+ * caches the bodies of successful responses that were not cached yet. Responses
+ * read while the data was changing are passed through unencoded. Requests
+ * whose {@link Deadline} has already expired are passed through so that they
+ * fail as they would without the cache.
+ */
+@Filter(methods = HttpMethod.GET, value = {"/owners", "/owners/", "/owners/*/pets"})
+@Requires(property = "response-cache.enabled", notEquals = "false")
+public class ResponseCacheFilter implements HttpServerFilter {
+    private static final String GZIP = "gzip";
+
+    private final ResponseCache responseCache;
+
+    public ResponseCacheFilter(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+        String key = request.getUri().toString();
+        boolean gzip = acceptsGzip(request.getHeaders().getAll(HttpHeaders.ACCEPT_ENCODING));
+
+        boolean expired = request.getAttribute(Deadline.ATTRIBUTE, Deadline.class)
+                .map(Deadline::isExpired)
+                .orElse(false);
+        if (!expired) {
+            Optional<ByteBuf> cached = responseCache.get(key, gzip);
+            if (cached.isPresent()) {
+                return Flowable.just(encoded(HttpResponse.ok(), cached.get(), gzip));
+            }
+        }
+
+        long generation = responseCache.generation();
+        return Flowable.fromPublisher(chain.proceed(request)).map(response -> {
+            Object body = response.getBody().orElse(null);
+            if (response.status() == HttpStatus.OK && body != null && !(body instanceof ByteBuf)) {
+                Optional<ByteBuf> encoded = responseCache.put(key, body, generation, gzip);
+                if (encoded.isPresent()) {
+                    return encoded(response, encoded.get(), gzip);
+                }
+            }
+            return response;
+        });
+    }
+
+    /**
+     * @param acceptEncoding The values of the {@code Accept-Encoding} headers
+     * @return Whether gzip is acceptable, explicitly or through {@code *}, with a non-zero quality
+     */
+    static boolean acceptsGzip(List<String> acceptEncoding) {
+        Double gzip = null;
+        Double any = null;
+        for (String value : acceptEncoding) {
+            for (String token : value.split(",")) {
+                String[] parameters = token.split(";");
+                String coding = parameters[0].trim().toLowerCase(Locale.ENGLISH);
+                double quality = 1;
+                for (int i = 1; i < parameters.length; i++) {
+                    String parameter = parameters[i].trim();
+                    if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                        try {
+                            quality = Double.parseDouble(parameter.substring(2).trim());
+                        } catch (NumberFormatException e) {
+                            quality = 0;
+                        }
+                    }
+                }
+                if (coding.equals(GZIP)) {
+                    gzip = quality;
+                } else if (coding.equals("*")) {
+                    any = quality;
+                }
+            }
+        }
+        // an explicit gzip quality overrides the wildcard
+        Double quality = gzip != null ? gzip : any;
+        return quality != null && quality > 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static MutableHttpResponse<?> encoded(MutableHttpResponse<?> response, ByteBuf body, boolean gzip) {
+        MutableHttpResponse<ByteBuf> encoded = ((MutableHttpResponse<Object>) response)
+                .body(body)
+                .contentType(MediaType.APPLICATION_JSON_TYPE)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            // the content compressor leaves responses that already declare an encoding alone
+            encoded.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return encoded;
+    }
+}
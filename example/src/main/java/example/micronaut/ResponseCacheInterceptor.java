@@ -0,0 +1,36 @@
+package example.micronaut;
+
+import io.micronaut.aop.MethodInterceptor;
+import io.micronaut.aop.MethodInvocationContext;
+import io.micronaut.core.order.Ordered;
+
+import javax.inject.Singleton;
+
+/**
+ * Invalidates the {@link ResponseCache} around writes. Runs before any
+ * transaction is started so that the cache is invalidated again only once the
+ * write has been committed.
+ */
+@Singleton
+public class ResponseCacheInterceptor implements MethodInterceptor<Object, Object>, Ordered {
+    private final ResponseCache responseCache;
+
+    public ResponseCacheInterceptor(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public Object intercept(MethodInvocationContext<Object, Object> context) {
+        responseCache.writeStarted();
+        try {
+            return context.proceed();
+        } finally {
+            responseCache.writeCompleted();
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,51 @@
+package example.micronaut;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import java.util.Collections;
+import java.util.List;
+
+@ConfigurationProperties("shards")
+public class ShardConfiguration {
+    private boolean enabled;
+    @NotEmpty
+    private List<String> datasources = Collections.singletonList(ShardRouter.DEFAULT_SHARD);
+    @Min(1)
+    private int virtualNodes = 100;
+
+    /**
+     * Whether owners and their pets are partitioned across the configured data sources
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * The names of the data sources holding the shards, each of which must also be migrated by Flyway with the
+     * {@code shards} placeholder set to their number and {@code shard} to a distinct value from 1 to that number
+     */
+    public List<String> getDatasources() {
+        return datasources;
+    }
+
+    public void setDatasources(List<String> datasources) {
+        this.datasources = datasources;
+    }
+
+    /**
+     * The number of points each shard is given on the hash ring, more points spread owners more evenly
+     */
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    public void setVirtualNodes(int virtualNodes) {
+        this.virtualNodes = virtualNodes;
+    }
+}
@@ -0,0 +1,27 @@
+package example.micronaut;
+
+import io.micronaut.scheduling.instrument.InvocationInstrumenter;
+import io.micronaut.scheduling.instrument.InvocationInstrumenterFactory;
+
+import javax.inject.Singleton;
+
+/**
+ * Propagates the shard bound to a thread to the tasks it submits to Micronaut's
+ * executors, such as the queries of reactive repository methods, so that their
+ * connections are taken from the same shard.
+ */
+@Singleton
+public class ShardInvocationInstrumenterFactory implements InvocationInstrumenterFactory {
+    private final ShardRouter shardRouter;
+
+    public ShardInvocationInstrumenterFactory(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public InvocationInstrumenter newInvocationInstrumenter() {
+        return shardRouter.currentShard()
+                .<InvocationInstrumenter>map(shard -> () -> shardRouter.bind(shard))
+                .orElse(null);
+    }
+}
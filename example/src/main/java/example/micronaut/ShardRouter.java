@@ -0,0 +1,132 @@
+package example.micronaut;
+
+import io.micronaut.context.BeanLocator;
+import io.micronaut.inject.qualifiers.Qualifiers;
+import io.micronaut.scheduling.instrument.Instrumentation;
+import io.micronaut.transaction.jdbc.DelegatingDataSource;
+import io.reactivex.Single;
+
+import javax.inject.Singleton;
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Maps owner names to shards by consistent hashing and binds a shard to the
+ * current thread, so that connections obtained while it is bound are taken from
+ * that shard's data source by the {@link ShardRoutingDataSource}.
+ *
+ * <p>When sharding is disabled there is a single shard, the default data source,
+ * and binding it has no effect.</p>
+ */
+@Singleton
+public class ShardRouter {
+    /**
+     * The name of the default data source, which is used when no shard is bound.
+     */
+    public static final String DEFAULT_SHARD = "default";
+
+    private final BeanLocator beanLocator;
+    private final List<String> shards;
+    private final ConsistentHash ring;
+    private final ThreadLocal<String> current = new ThreadLocal<>();
+    private final Map<String, DataSource> dataSources = new ConcurrentHashMap<>();
+
+    public ShardRouter(BeanLocator beanLocator, ShardConfiguration configuration) {
+        this.beanLocator = beanLocator;
+        this.shards = configuration.isEnabled() ? configuration.getDatasources() : List.of(DEFAULT_SHARD);
+        this.ring = new ConsistentHash(shards, configuration.getVirtualNodes());
+    }
+
+    /**
+     * @return The names of the data sources holding the shards
+     */
+    public List<String> getShards() {
+        return shards;
+    }
+
+    /**
+     * @param owner The name of an owner
+     * @return The shard holding the owner and their pets
+     */
+    public String shardFor(String owner) {
+        return ring.node(owner);
+    }
+
+    /**
+     * @return The shard bound to the current thread, if any
+     */
+    public Optional<String> currentShard() {
+        return Optional.ofNullable(current.get());
+    }
+
+    /**
+     * Invokes the given function with a shard bound to the current thread.
+     * @param shard The shard
+     * @param function The function
+     * @param <T> The result type
+     * @return The result of the function
+     */
+    public <T> T call(String shard, Supplier<T> function) {
+        try (Instrumentation ignored = bind(shard)) {
+            return function.get();
+        }
+    }
+
+    /**
+     * Runs the given action with a shard bound to the current thread.
+     * @param shard The shard
+     * @param action The action
+     */
+    public void run(String shard, Runnable action) {
+        call(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Subscribes to a single with a shard bound to the subscribing thread. The shard is
+     * propagated to the executor that a reactive repository method runs its query on.
+     * @param shard The shard
+     * @param single Supplies the single
+     * @param <T> The result type
+     * @return A single that subscribes to the supplied one on the shard
+     */
+    public <T> Single<T> single(String shard, Supplier<Single<T>> single) {
+        return Single.wrap(observer -> run(shard, () -> single.get().subscribe(observer)));
+    }
+
+    /**
+     * Binds a shard to the current thread.
+     * @param shard The shard
+     * @return Restores the previously bound shard when closed
+     */
+    Instrumentation bind(String shard) {
+        String previous = current.get();
+        current.set(shard);
+        return cleanup -> {
+            if (previous == null) {
+                current.remove();
+            } else {
+                current.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Resolves the data source of a shard other than the default one. Resolving a
+     * data source for the first time also migrates it with Flyway.
+     * @param shard The shard
+     * @return The data source, without transaction awareness as the shard is only ever
+     * used through the default data source's transactions
+     */
+    DataSource dataSource(String shard) {
+        return dataSources.computeIfAbsent(shard, name -> DelegatingDataSource.unwrapDataSource(
+                beanLocator.getBean(DataSource.class, Qualifiers.byName(name))
+        ));
+    }
+}
@@ -0,0 +1,78 @@
+package example.micronaut;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.logging.Logger;
+
+/**
+ * Wraps the default {@link DataSource} and hands out connections of the shard
+ * bound to the current thread by the {@link ShardRouter}, or of the default data
+ * source if none is bound.
+ *
+ * <p>Hibernate only knows about the default data source, so a shard has to be
+ * bound before a transaction or session obtains its connection.</p>
+ */
+public class ShardRoutingDataSource implements DataSource {
+    private final DataSource target;
+    private final ShardRouter shardRouter;
+
+    public ShardRoutingDataSource(DataSource target, ShardRouter shardRouter) {
+        this.target = target;
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route().getConnection(username, password);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return target.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        target.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        target.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return target.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return target.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(target) ? iface.cast(target) : target.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(target) || target.isWrapperFor(iface);
+    }
+
+    private DataSource route() {
+        return shardRouter.currentShard()
+                .filter(shard -> !shard.equals(ShardRouter.DEFAULT_SHARD))
+                .map(shardRouter::dataSource)
+                .orElse(target);
+    }
+}
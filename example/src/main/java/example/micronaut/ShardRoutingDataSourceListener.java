@@ -0,0 +1,40 @@
+package example.micronaut;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.BeanCreatedEvent;
+import io.micronaut.context.event.BeanCreatedEventListener;
+import io.micronaut.core.order.Ordered;
+
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import javax.sql.DataSource;
+
+/**
+ * Wraps the default {@link DataSource} in a {@link ShardRoutingDataSource} when
+ * sharding is enabled.
+ *
+ * <p>Runs after the {@link InstrumentedDataSourceListener}, so that each shard is
+ * instrumented under its own name, and before the transaction aware wrapping.</p>
+ */
+@Singleton
+@Requires(property = "shards.enabled", value = "true")
+public class ShardRoutingDataSourceListener implements BeanCreatedEventListener<DataSource>, Ordered {
+    private final Provider<ShardRouter> shardRouter;
+
+    public ShardRoutingDataSourceListener(Provider<ShardRouter> shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public DataSource onCreated(BeanCreatedEvent<DataSource> event) {
+        if (!ShardRouter.DEFAULT_SHARD.equals(event.getBeanIdentifier().getName())) {
+            return event.getBean();
+        }
+        return new ShardRoutingDataSource(event.getBean(), shardRouter.get());
+    }
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE + 1;
+    }
+}
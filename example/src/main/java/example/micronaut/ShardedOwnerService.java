@@ -0,0 +1,125 @@
+package example.micronaut;
+
+import io.micronaut.context.annotation.Primary;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.context.ServerRequestContext;
+import io.micronaut.runtime.event.annotation.EventListener;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * Partitions owners and their pets across the data sources listed in
+ * {@code shards.datasources} by a consistent hash of the owner name. Enabled
+ * with {@code shards.enabled: true}.
+ *
+ * <p>Every operation is keyed by owner name, so it is passed to {@link OwnerService}
+ * with the owner's shard bound, except for {@link #getInitialOwners()} which
+ * queries every shard in parallel on the {@code shards} executor and merges the
+ * results. Each shard allocates ids from its own residue modulo the number of
+ * shards, set by the {@code shard} and {@code shards} Flyway placeholders, so ids
+ * are unique across shards.</p>
+ */
+@Primary
+@Singleton
+@Requires(property = "shards.enabled", value = "true")
+public class ShardedOwnerService implements OwnerOperations {
+    private final OwnerService ownerService;
+    private final OwnerSearchIndex ownerSearchIndex;
+    private final ShardRouter shardRouter;
+    private final List<OwnerConfiguration> ownerConfigurations;
+    private final ExecutorService executorService;
+
+    ShardedOwnerService(OwnerService ownerService,
+                        OwnerSearchIndex ownerSearchIndex,
+                        ShardRouter shardRouter,
+                        List<OwnerConfiguration> ownerConfigurations,
+                        @Named("shards") ExecutorService executorService) {
+        this.ownerService = ownerService;
+        this.ownerSearchIndex = ownerSearchIndex;
+        this.shardRouter = shardRouter;
+        this.ownerConfigurations = ownerConfigurations;
+        this.executorService = executorService;
+    }
+
+    @EventListener
+    void init(StartupEvent startupEvent) {
+        // resolving every shard's data source also migrates it
+        Collection<Owner> owners = getInitialOwners();
+        if (owners.isEmpty()) {
+            for (OwnerConfiguration ownerConfiguration : ownerConfigurations) {
+                shardRouter.run(shardRouter.shardFor(ownerConfiguration.getName()), () ->
+                        ownerService.seed(ownerConfiguration)
+                );
+            }
+            owners = getInitialOwners();
+        }
+        ownerSearchIndex.rebuild(owners);
+    }
+
+    @Override
+    public Collection<Owner> getInitialOwners() {
+        Optional<HttpRequest<Object>> request = ServerRequestContext.currentRequest();
+        List<CompletableFuture<Collection<Owner>>> results = new ArrayList<>();
+        for (String shard : shardRouter.getShards()) {
+            Supplier<Collection<Owner>> query = () -> shardRouter.call(shard, ownerService::getInitialOwners);
+            // propagate the request so that its deadline applies to each shard
+            results.add(CompletableFuture.supplyAsync(
+                    () -> request.map(r -> ServerRequestContext.with(r, query)).orElseGet(query),
+                    executorService
+            ));
+        }
+        List<Owner> owners = new ArrayList<>();
+        for (CompletableFuture<Collection<Owner>> result : results) {
+            try {
+                owners.addAll(result.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        return owners;
+    }
+
+    @Override
+    public void addOwner(Owner owner) {
+        shardRouter.run(shardRouter.shardFor(owner.getName()), () -> ownerService.addOwner(owner));
+    }
+
+    @Override
+    public Collection<Owner> searchOwners(String query, int limit) {
+        return ownerService.searchOwners(query, limit);
+    }
+
+    @Override
+    public Pet getPet(String owner, String pet) {
+        return shardRouter.call(shardRouter.shardFor(owner), () -> ownerService.getPet(owner, pet));
+    }
+
+    @Override
+    public Collection<Pet> getPets(String owner) {
+        return shardRouter.call(shardRouter.shardFor(owner), () -> ownerService.getPets(owner));
+    }
+
+    @Override
+    public Collection<Pet> getPetsWithHeath(String owner, Pet.PetHealth health) {
+        return shardRouter.call(shardRouter.shardFor(owner), () -> ownerService.getPetsWithHeath(owner, health));
+    }
+
+    @Override
+    public void updatePetHealth(String owner, String pet, Pet.PetHealth health) {
+        shardRouter.run(shardRouter.shardFor(owner), () -> ownerService.updatePetHealth(owner, pet, health));
+    }
+}
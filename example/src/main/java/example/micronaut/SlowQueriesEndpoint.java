@@ -0,0 +1,25 @@
+package example.micronaut;
+
+import io.micronaut.management.endpoint.annotation.Endpoint;
+import io.micronaut.management.endpoint.annotation.Read;
+
+import java.util.List;
+
+/**
+ * Exposes the most recent slow queries, slowest first, at {@code /slowqueries}.
+ * Bind values are masked unless {@code sql.instrumentation.capture-parameters}
+ * is enabled, which also makes the endpoint sensitive.
+ */
+@Endpoint(id = "slowqueries")
+public class SlowQueriesEndpoint {
+    private final SqlRecorder sqlRecorder;
+
+    public SlowQueriesEndpoint(SqlRecorder sqlRecorder) {
+        this.sqlRecorder = sqlRecorder;
+    }
+
+    @Read
+    public List<SlowQuery> getSlowQueries() {
+        return sqlRecorder.getSlowQueries();
+    }
+}
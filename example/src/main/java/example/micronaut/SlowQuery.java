@@ -0,0 +1,65 @@
+package example.micronaut;
+
+import io.micronaut.core.annotation.Introspected;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A statement that took longer than the configured slow query threshold.
+ */
+@Introspected
+public class SlowQuery {
+    private final String sql;
+    private final List<String> parameters;
+    private final String repositoryMethod;
+    private final double durationMillis;
+    private final Instant executedAt;
+
+    public SlowQuery(String sql,
+                     List<String> parameters,
+                     String repositoryMethod,
+                     double durationMillis,
+                     Instant executedAt) {
+        this.sql = sql;
+        this.parameters = parameters;
+        this.repositoryMethod = repositoryMethod;
+        this.durationMillis = durationMillis;
+        this.executedAt = executedAt;
+    }
+
+    /**
+     * The SQL of the statement
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * The bind parameters in index order
+     */
+    public List<String> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * The repository method that issued the statement, if any
+     */
+    public String getRepositoryMethod() {
+        return repositoryMethod;
+    }
+
+    /**
+     * How long the statement took to execute
+     */
+    public double getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * When the statement completed
+     */
+    public Instant getExecutedAt() {
+        return executedAt;
+    }
+}
@@ -0,0 +1,101 @@
+package example.micronaut;
+
+import io.micronaut.context.annotation.Primary;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.runtime.event.annotation.EventListener;
+import io.micronaut.runtime.server.event.ServerStartupEvent;
+import io.micronaut.scheduling.annotation.Scheduled;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Singleton;
+import java.util.Collection;
+
+/**
+ * Serves reads from an immutable {@link OwnerSnapshot} that is periodically
+ * rebuilt from the database and swapped in atomically. Enabled with
+ * {@code snapshot.enabled: true}, unless sharding is enabled.
+ *
+ * <p>Writes are passed through to {@link OwnerService} and become visible to
+ * readers after the next refresh.</p>
+ */
+@Primary
+@Singleton
+@Requires(property = "snapshot.enabled", value = "true")
+@Requires(property = "shards.enabled", notEquals = "true")
+public class SnapshotOwnerService implements OwnerOperations {
+    private static final Logger LOG = LoggerFactory.getLogger(SnapshotOwnerService.class);
+
+    private final OwnerService ownerService;
+    private final OwnerSnapshotRepository ownerSnapshotRepository;
+    private final ResponseCache responseCache;
+    private volatile OwnerSnapshot snapshot;
+
+    SnapshotOwnerService(OwnerService ownerService,
+                         OwnerSnapshotRepository ownerSnapshotRepository,
+                         ResponseCache responseCache) {
+        this.ownerService = ownerService;
+        this.ownerSnapshotRepository = ownerSnapshotRepository;
+        this.responseCache = responseCache;
+    }
+
+    @EventListener
+    void init(ServerStartupEvent startupEvent) {
+        refresh();
+    }
+
+    /**
+     * Rebuilds the snapshot from the database.
+     */
+    @Scheduled(fixedDelay = "${snapshot.refresh-interval:5m}", initialDelay = "${snapshot.refresh-interval:5m}")
+    void refresh() {
+        long start = System.nanoTime();
+        OwnerSnapshot snapshot = ownerSnapshotRepository.load();
+        this.snapshot = snapshot;
+        // cached responses may have been encoded from the previous snapshot
+        responseCache.invalidateAll();
+        LOG.debug("Loaded snapshot of {} owners and {} pets in {}ms",
+                snapshot.ownerCount(),
+                snapshot.petCount(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public Collection<Owner> getInitialOwners() {
+        OwnerSnapshot snapshot = this.snapshot;
+        return snapshot != null ? snapshot.getOwners() : ownerService.getInitialOwners();
+    }
+
+    @Override
+    public void addOwner(Owner owner) {
+        ownerService.addOwner(owner);
+    }
+
+    @Override
+    public Collection<Owner> searchOwners(String query, int limit) {
+        return ownerService.searchOwners(query, limit);
+    }
+
+    @Override
+    public Pet getPet(String owner, String pet) {
+        OwnerSnapshot snapshot = this.snapshot;
+        return snapshot != null ? snapshot.getPet(owner, pet) : ownerService.getPet(owner, pet);
+    }
+
+    @Override
+    public Collection<Pet> getPets(String owner) {
+        OwnerSnapshot snapshot = this.snapshot;
+        return snapshot != null ? snapshot.getPets(owner, null) : ownerService.getPets(owner);
+    }
+
+    @Override
+    public Collection<Pet> getPetsWithHeath(String owner, Pet.PetHealth health) {
+        OwnerSnapshot snapshot = this.snapshot;
+        return snapshot != null ? snapshot.getPets(owner, health) : ownerService.getPetsWithHeath(owner, health);
+    }
+
+    @Override
+    public void updatePetHealth(String owner, String pet, Pet.PetHealth health) {
+        ownerService.updatePetHealth(owner, pet, health);
+    }
+}
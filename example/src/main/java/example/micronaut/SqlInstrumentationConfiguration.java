@@ -0,0 +1,74 @@
+package example.micronaut;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+
+@ConfigurationProperties("sql.instrumentation")
+public class SqlInstrumentationConfiguration {
+    private boolean enabled = true;
+    @Min(1)
+    private int statementThreshold = 10;
+    @NotNull
+    private Duration slowQueryThreshold = Duration.ofMillis(100);
+    @Min(1)
+    private int slowQueryCapacity = 50;
+    private boolean captureParameters;
+
+    /**
+     * Whether SQL statement and repository metrics are recorded
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * The number of statements above which a single HTTP request is reported as a likely N+1
+     */
+    public int getStatementThreshold() {
+        return statementThreshold;
+    }
+
+    public void setStatementThreshold(int statementThreshold) {
+        this.statementThreshold = statementThreshold;
+    }
+
+    /**
+     * The duration above which a statement is kept as a slow query
+     */
+    public Duration getSlowQueryThreshold() {
+        return slowQueryThreshold;
+    }
+
+    public void setSlowQueryThreshold(Duration slowQueryThreshold) {
+        this.slowQueryThreshold = slowQueryThreshold;
+    }
+
+    /**
+     * The number of recent slow queries to keep
+     */
+    public int getSlowQueryCapacity() {
+        return slowQueryCapacity;
+    }
+
+    public void setSlowQueryCapacity(int slowQueryCapacity) {
+        this.slowQueryCapacity = slowQueryCapacity;
+    }
+
+    /**
+     * Whether the bind values of slow queries are kept, otherwise each is replaced with {@code ?}
+     */
+    public boolean isCaptureParameters() {
+        return captureParameters;
+    }
+
+    public void setCaptureParameters(boolean captureParameters) {
+        this.captureParameters = captureParameters;
+    }
+}
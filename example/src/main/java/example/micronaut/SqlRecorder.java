@@ -0,0 +1,155 @@
+package example.micronaut;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.context.ServerRequestContext;
+
+import javax.inject.Singleton;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Records JDBC statement and repository method timings into Micrometer, counts
+ * the statements issued by the current HTTP request and keeps a ring buffer of
+ * the most recent slow queries.
+ */
+@Singleton
+public class SqlRecorder {
+    static final String STATEMENT_COUNT = "sql.statement-count";
+    private static final String MASKED = "?";
+    private static final String NO_REPOSITORY = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final SqlInstrumentationConfiguration configuration;
+    private final ThreadLocal<String> repositoryMethod = new ThreadLocal<>();
+    private final SlowQuery[] slowQueries;
+    private int nextSlowQuery;
+
+    public SqlRecorder(MeterRegistry meterRegistry, SqlInstrumentationConfiguration configuration) {
+        this.meterRegistry = meterRegistry;
+        this.configuration = configuration;
+        this.slowQueries = new SlowQuery[configuration.getSlowQueryCapacity()];
+    }
+
+    /**
+     * Marks the start of a repository method on the current thread.
+     * @param method The repository method, such as {@code PetRepository.findByOwnerName}
+     * @return The previously active repository method, to be passed to {@link #repositoryMethodCompleted}
+     */
+    String repositoryMethodStarted(String method) {
+        String previous = repositoryMethod.get();
+        repositoryMethod.set(method);
+        return previous;
+    }
+
+    /**
+     * Records a completed repository method.
+     * @param method The repository method
+     * @param previous The value returned by {@link #repositoryMethodStarted}
+     * @param nanos How long the method took
+     * @param rows The number of rows returned
+     */
+    void repositoryMethodCompleted(String method, String previous, long nanos, int rows) {
+        if (previous == null) {
+            repositoryMethod.remove();
+        } else {
+            repositoryMethod.set(previous);
+        }
+        if (!configuration.isEnabled()) {
+            return;
+        }
+        Timer.builder("repository.calls")
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("repository.rows")
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(rows);
+    }
+
+    /**
+     * Records an executed JDBC statement.
+     * @param sql The SQL
+     * @param parameters The bind parameters by index, may be null
+     * @param parameterCount The number of bind parameters
+     * @param nanos How long the statement took
+     */
+    void statementExecuted(String sql, Object[] parameters, int parameterCount, long nanos) {
+        if (!configuration.isEnabled()) {
+            return;
+        }
+        String method = Optional.ofNullable(repositoryMethod.get()).orElse(NO_REPOSITORY);
+        Timer.builder("sql.statements")
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        ServerRequestContext.currentRequest()
+                .flatMap(request -> request.getAttribute(STATEMENT_COUNT, AtomicInteger.class))
+                .ifPresent(AtomicInteger::incrementAndGet);
+
+        if (nanos >= configuration.getSlowQueryThreshold().toNanos()) {
+            List<String> values = parameters == null ? List.of() : Arrays.stream(parameters, 0, parameterCount)
+                    .map(value -> configuration.isCaptureParameters() ? String.valueOf(value) : MASKED)
+                    .collect(Collectors.toList());
+            addSlowQuery(new SlowQuery(sql, values, method, nanos / 1_000_000d, Instant.now()));
+        }
+    }
+
+    /**
+     * Starts counting the statements issued while handling the given request.
+     * @param request The request
+     */
+    void requestStarted(HttpRequest<?> request) {
+        request.setAttribute(STATEMENT_COUNT, new AtomicInteger());
+    }
+
+    /**
+     * Records the number of statements issued by a completed request.
+     * @param request The request
+     * @param uri The route template of the request
+     * @return The number of statements if it exceeded the configured threshold
+     */
+    Optional<Integer> requestCompleted(HttpRequest<?> request, String uri) {
+        int statements = request.getAttribute(STATEMENT_COUNT, AtomicInteger.class)
+                .map(AtomicInteger::get)
+                .orElse(0);
+        DistributionSummary.builder("http.server.sql.statements")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements);
+        if (statements > configuration.getStatementThreshold()) {
+            meterRegistry.counter("http.server.sql.excessive", "uri", uri).increment();
+            return Optional.of(statements);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return The recent slow queries, slowest first
+     */
+    public synchronized List<SlowQuery> getSlowQueries() {
+        List<SlowQuery> queries = new ArrayList<>(slowQueries.length);
+        for (SlowQuery query : slowQueries) {
+            if (query != null) {
+                queries.add(query);
+            }
+        }
+        queries.sort(Comparator.comparingDouble(SlowQuery::getDurationMillis).reversed());
+        return queries;
+    }
+
+    private synchronized void addSlowQuery(SlowQuery query) {
+        slowQueries[nextSlowQuery] = query;
+        nextSlowQuery = (nextSlowQuery + 1) % slowQueries.length;
+    }
+}
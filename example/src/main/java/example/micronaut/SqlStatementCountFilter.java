@@ -0,0 +1,50 @@
+package example.micronaut;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.http.HttpAttributes;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.context.event.HttpRequestTerminatedEvent;
+import io.micronaut.http.filter.HttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Counts the JDBC statements issued while handling each request and warns about
+ * requests that issue more than {@code sql.instrumentation.statement-threshold},
+ * which usually means an N+1 select. The count is recorded once the response has
+ * been written, so that it includes associations loaded while serializing the body.
+ */
+@Filter("/**")
+@Requires(property = "sql.instrumentation.enabled", notEquals = "false")
+public class SqlStatementCountFilter implements HttpServerFilter, ApplicationEventListener<HttpRequestTerminatedEvent> {
+    private static final Logger LOG = LoggerFactory.getLogger(SqlStatementCountFilter.class);
+
+    private final SqlRecorder sqlRecorder;
+
+    public SqlStatementCountFilter(SqlRecorder sqlRecorder) {
+        this.sqlRecorder = sqlRecorder;
+    }
+
+    @Override
+    public Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+        sqlRecorder.requestStarted(request);
+        return chain.proceed(request);
+    }
+
+    @Override
+    public void onApplicationEvent(HttpRequestTerminatedEvent event) {
+        HttpRequest<?> request = event.getSource();
+        if (!request.getAttribute(SqlRecorder.STATEMENT_COUNT).isPresent()) {
+            return;
+        }
+        String uri = request.getAttribute(HttpAttributes.URI_TEMPLATE, String.class).orElse("UNKNOWN");
+        sqlRecorder.requestCompleted(request, uri).ifPresent(statements ->
+                LOG.warn("Request {} {} issued {} SQL statements", request.getMethod(), request.getPath(), statements)
+        );
+    }
+}
@@ -0,0 +1,24 @@
+package example.micronaut;
+
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.QueryValue;
+
+@Controller("/stats")
+public class StatsController {
+    private final PetHealthStatistics petHealthStatistics;
+
+    public StatsController(PetHealthStatistics petHealthStatistics) {
+        this.petHealthStatistics = petHealthStatistics;
+    }
+
+    /**
+     * Gets pet health counts overall and for the owners with the most pets requiring vaccination
+     * @param top The number of owners to include, at most 100
+     * @return The pet health statistics
+     */
+    @Get("/health")
+    HealthStatistics getHealth(@QueryValue(defaultValue = "10") int top) {
+        return petHealthStatistics.getStatistics(top);
+    }
+}
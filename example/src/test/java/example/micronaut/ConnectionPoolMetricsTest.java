@@ -0,0 +1,95 @@
+package example.micronaut;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionPoolMetricsTest {
+
+    @Test
+    void testLeakDetection() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PoolConfiguration configuration = new PoolConfiguration();
+        configuration.setLeakThreshold(Duration.ZERO);
+        ConnectionPoolMetrics metrics = new ConnectionPoolMetrics(meterRegistry, configuration);
+        metrics.register("default", null);
+
+        String previous = metrics.callerStarted("OwnerService.getPets");
+        ConnectionPoolMetrics.Lease lease = metrics.acquired("default", Duration.ofMillis(5).toNanos());
+        metrics.callerCompleted(previous);
+        ConnectionPoolMetrics.Lease other = metrics.acquired("default", 0);
+
+        metrics.detectLeaks();
+        metrics.detectLeaks();
+        assertEquals(
+                1d,
+                meterRegistry.get("pool.connections.leaks").tag("caller", "OwnerService.getPets").counter().count()
+        );
+        assertEquals(
+                2d,
+                meterRegistry.get("pool.connections.leaked").tag("pool", "default").gauge().value()
+        );
+
+        metrics.released(lease);
+        metrics.released(lease);
+        assertEquals(
+                1d,
+                meterRegistry.get("pool.connections.leaked").tag("pool", "default").gauge().value()
+        );
+        assertEquals(
+                1L,
+                meterRegistry.get("pool.connections.hold").tag("caller", "OwnerService.getPets").timer().count()
+        );
+        assertEquals(
+                1L,
+                meterRegistry.get("pool.connections.wait").tag("caller", "none").timer().count()
+        );
+        assertEquals(
+                2L,
+                metrics.getPools().get("default").acquisitions.sum()
+        );
+        metrics.released(other);
+    }
+
+    @Test
+    void testAdaptiveSizing() {
+        PoolConfiguration.Adaptive configuration = new PoolConfiguration().getAdaptive();
+        configuration.setMinSize(4);
+        configuration.setMaxSize(10);
+        configuration.setStep(2);
+
+        // callers wait as long as their statements take
+        assertEquals(
+                8,
+                AdaptivePoolSizer.targetSize(6, 1000, 1000, 1000, 0, configuration)
+        );
+        // never beyond the maximum
+        assertEquals(
+                10,
+                AdaptivePoolSizer.targetSize(9, 1000, 1000, 1000, 0, configuration)
+        );
+        // the database is slowing down, more connections would not help
+        assertEquals(
+                6,
+                AdaptivePoolSizer.targetSize(6, 1000, 1000, 500, 0, configuration)
+        );
+        // nobody waits and connections are idle
+        assertEquals(
+                4,
+                AdaptivePoolSizer.targetSize(6, 10, 1000, 1000, 3, configuration)
+        );
+        // nobody waits but every connection is busy
+        assertEquals(
+                6,
+                AdaptivePoolSizer.targetSize(6, 10, 1000, 1000, 1, configuration)
+        );
+        // never below the minimum
+        assertEquals(
+                4,
+                AdaptivePoolSizer.targetSize(5, 10, 1000, 1000, 5, configuration)
+        );
+    }
+}
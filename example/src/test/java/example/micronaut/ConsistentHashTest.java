@@ -0,0 +1,41 @@
+package example.micronaut;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConsistentHashTest {
+
+    @Test
+    void testDistributionAndStability() {
+        ConsistentHash three = new ConsistentHash(List.of("default", "shard-1", "shard-2"), 100);
+        ConsistentHash four = new ConsistentHash(List.of("default", "shard-1", "shard-2", "shard-3"), 100);
+
+        int keys = 30_000;
+        Map<String, Integer> counts = new HashMap<>();
+        int moved = 0;
+        for (int i = 0; i < keys; i++) {
+            String owner = "owner-" + i;
+            String shard = three.node(owner);
+            assertEquals(shard, three.node(owner));
+            counts.merge(shard, 1, Integer::sum);
+
+            String resharded = four.node(owner);
+            if (!resharded.equals(shard)) {
+                // keys only ever move to the new shard
+                assertEquals("shard-3", resharded);
+                moved++;
+            }
+        }
+
+        assertEquals(3, counts.size());
+        for (int count : counts.values()) {
+            assertTrue(Math.abs(count - keys / 3) < keys / 3 * 0.2, "Unbalanced shards " + counts);
+        }
+        assertTrue(Math.abs(moved - keys / 4) < keys / 4 * 0.2, "Moved " + moved + " keys");
+    }
+}
@@ -0,0 +1,92 @@
+package example.micronaut;
+
+import io.micronaut.core.convert.ConversionService;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.runtime.converters.time.TimeConverterRegistrar;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeadlineTest {
+
+    @Test
+    void testExpiry() {
+        Deadline deadline = Deadline.after(Duration.ofMinutes(1));
+        assertFalse(deadline.isExpired());
+        deadline.check();
+
+        assertTrue(Deadline.after(Duration.ZERO).isExpired());
+        assertThrows(DeadlineExceededException.class, () -> Deadline.after(Duration.ofMillis(-1)).check());
+
+        deadline.cancel();
+        assertTrue(deadline.isExpired());
+        assertEquals(Duration.ZERO, deadline.remaining());
+    }
+
+    @Test
+    void testStatementTimeoutAndCancel() throws Exception {
+        AtomicInteger timeout = new AtomicInteger(60);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Statement statement = (Statement) Proxy.newProxyInstance(
+                Statement.class.getClassLoader(),
+                new Class[] {Statement.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getQueryTimeout":
+                            return timeout.get();
+                        case "setQueryTimeout":
+                            timeout.set((Integer) args[0]);
+                            return null;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "cancel":
+                            cancelled.set(true);
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                }
+        );
+
+        Deadline deadline = Deadline.after(Duration.ofMillis(1500));
+        deadline.executing(statement);
+        assertEquals(2, timeout.get());
+
+        deadline.cancel();
+        assertTrue(cancelled.get());
+        deadline.completed(statement);
+
+        assertThrows(SQLTimeoutException.class, () -> deadline.executing(statement));
+    }
+
+    @Test
+    void testRequestedTimeout() {
+        // registered by the application context when the server runs
+        new TimeConverterRegistrar().register(ConversionService.SHARED);
+        DeadlineConfiguration configuration = new DeadlineConfiguration();
+        DeadlineFilter filter = new DeadlineFilter(configuration, List.of());
+
+        assertEquals(Duration.ofMillis(1500), timeout(filter, configuration, "1500"));
+        assertEquals(Duration.ofSeconds(2), timeout(filter, configuration, "2s"));
+        assertEquals(configuration.getMaxTimeout(), timeout(filter, configuration, "60s"));
+        // values that overflow a long are clamped rather than failing the request
+        assertEquals(configuration.getMaxTimeout(), timeout(filter, configuration, "99999999999999999999"));
+        // invalid durations fall back to the default timeout
+        assertEquals(configuration.getDefaultTimeout(), timeout(filter, configuration, "99999999999999999999s"));
+        assertEquals(configuration.getDefaultTimeout(), timeout(filter, configuration, "soon"));
+    }
+
+    private static Duration timeout(DeadlineFilter filter, DeadlineConfiguration configuration, String header) {
+        return filter.timeout(HttpRequest.GET("/owners").header(configuration.getHeader(), header));
+    }
+}
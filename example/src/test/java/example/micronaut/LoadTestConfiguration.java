@@ -0,0 +1,121 @@
+package example.micronaut;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties("loadtest")
+public class LoadTestConfiguration {
+    private int owners = 500;
+    private int petsPerOwner = 4;
+    private int rate = 25;
+    private Duration warmup = Duration.ofSeconds(5);
+    private Duration duration = Duration.ofSeconds(10);
+    private Slo slo = new Slo();
+
+    /**
+     * The number of owners to seed the database with
+     */
+    public int getOwners() {
+        return owners;
+    }
+
+    public void setOwners(int owners) {
+        this.owners = owners;
+    }
+
+    /**
+     * The number of pets to seed for each owner
+     */
+    public int getPetsPerOwner() {
+        return petsPerOwner;
+    }
+
+    public void setPetsPerOwner(int petsPerOwner) {
+        this.petsPerOwner = petsPerOwner;
+    }
+
+    /**
+     * The constant number of requests started per second
+     */
+    public int getRate() {
+        return rate;
+    }
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+
+    /**
+     * How long to send traffic before recording latencies
+     */
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public void setWarmup(Duration warmup) {
+        this.warmup = warmup;
+    }
+
+    /**
+     * How long to record latencies for
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public void setDuration(Duration duration) {
+        this.duration = duration;
+    }
+
+    public Slo getSlo() {
+        return slo;
+    }
+
+    public void setSlo(Slo slo) {
+        this.slo = slo;
+    }
+
+    @ConfigurationProperties("slo")
+    public static class Slo {
+        private Duration p50 = Duration.ofMillis(50);
+        private Duration p99 = Duration.ofMillis(250);
+        private Duration p999 = Duration.ofMillis(500);
+        private double maxErrorRate = 0.001d;
+
+        public Duration getP50() {
+            return p50;
+        }
+
+        public void setP50(Duration p50) {
+            this.p50 = p50;
+        }
+
+        public Duration getP99() {
+            return p99;
+        }
+
+        public void setP99(Duration p99) {
+            this.p99 = p99;
+        }
+
+        public Duration getP999() {
+            return p999;
+        }
+
+        public void setP999(Duration p999) {
+            this.p999 = p999;
+        }
+
+        /**
+         * The highest acceptable fraction of failed requests
+         */
+        public double getMaxErrorRate() {
+            return maxErrorRate;
+        }
+
+        public void setMaxErrorRate(double maxErrorRate) {
+            this.maxErrorRate = maxErrorRate;
+        }
+    }
+}
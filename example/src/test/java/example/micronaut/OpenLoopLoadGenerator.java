@@ -0,0 +1,183 @@
+package example.micronaut;
+
+import io.reactivex.Flowable;
+import io.reactivex.disposables.Disposable;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.reactivestreams.Publisher;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Starts requests at a constant rate regardless of how long earlier requests
+ * take. Latency is measured from when each request was scheduled to start rather
+ * than when it was actually sent, so that a stalled server or client is charged
+ * for the requests it delayed, correcting for coordinated omission. Requests
+ * still in flight when the run gives up waiting are recorded as errors with the
+ * latency they had reached, as they are the slowest of all.
+ */
+class OpenLoopLoadGenerator {
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final int rate;
+    private final Duration drainTimeout;
+
+    OpenLoopLoadGenerator(int rate) {
+        this(rate, Duration.ofSeconds(30));
+    }
+
+    /**
+     * @param rate The number of requests to start per second
+     * @param drainTimeout How long to wait for requests in flight once the last one was started
+     */
+    OpenLoopLoadGenerator(int rate, Duration drainTimeout) {
+        this.rate = rate;
+        this.drainTimeout = drainTimeout;
+    }
+
+    /**
+     * @param warmup How long to send requests before recording
+     * @param duration How long to record for
+     * @param requests Supplies each request, which is sent when subscribed to
+     * @return The recorded results
+     */
+    Result run(Duration warmup, Duration duration, Supplier<Publisher<?>> requests) throws InterruptedException {
+        Result result = new Result(duration);
+        Set<Pending> inFlight = ConcurrentHashMap.newKeySet();
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long recordFrom = start + warmup.toNanos();
+        long end = recordFrom + duration.toNanos();
+
+        for (long intended = start; intended < end; intended += interval) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Pending pending = new Pending(intended, System.nanoTime(), intended >= recordFrom);
+            inFlight.add(pending);
+            pending.subscription = Flowable.fromPublisher(requests.get()).ignoreElements().subscribe(
+                    () -> {
+                        if (pending.finish()) {
+                            result.completed(pending.scheduled, pending.sent, System.nanoTime());
+                        }
+                        inFlight.remove(pending);
+                    },
+                    error -> {
+                        if (pending.finish()) {
+                            result.failed(pending.scheduled, pending.sent, System.nanoTime());
+                        }
+                        inFlight.remove(pending);
+                    }
+            );
+        }
+
+        long drainUntil = System.nanoTime() + drainTimeout.toNanos();
+        while (!inFlight.isEmpty() && System.nanoTime() < drainUntil) {
+            Thread.sleep(10);
+        }
+        for (Pending pending : inFlight) {
+            if (pending.finish()) {
+                result.failed(pending.scheduled, pending.sent, System.nanoTime());
+            }
+            if (pending.subscription != null) {
+                pending.subscription.dispose();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A request that has been sent, which is recorded at most once.
+     */
+    private static final class Pending {
+        final long scheduled;
+        final long sent;
+        final boolean recorded;
+        final AtomicBoolean finished = new AtomicBoolean();
+        volatile Disposable subscription;
+
+        Pending(long scheduled, long sent, boolean recorded) {
+            this.scheduled = scheduled;
+            this.sent = sent;
+            this.recorded = recorded;
+        }
+
+        /**
+         * @return Whether the caller finished the request and should record it
+         */
+        boolean finish() {
+            return finished.compareAndSet(false, true) && recorded;
+        }
+    }
+
+    static class Result {
+        private final Duration duration;
+        private final Histogram latency = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+
+        Result(Duration duration) {
+            this.duration = duration;
+        }
+
+        void completed(long scheduled, long sent, long finished) {
+            record(scheduled, sent, finished);
+        }
+
+        void failed(long scheduled, long sent, long finished) {
+            errors.incrementAndGet();
+            record(scheduled, sent, finished);
+        }
+
+        private void record(long scheduled, long sent, long finished) {
+            requests.incrementAndGet();
+            latency.recordValue(Math.min(HIGHEST_MICROS, TimeUnit.NANOSECONDS.toMicros(finished - scheduled)));
+            serviceTime.recordValue(Math.min(HIGHEST_MICROS, TimeUnit.NANOSECONDS.toMicros(finished - sent)));
+        }
+
+        /**
+         * @return Completed requests per second over the recorded period
+         */
+        double getThroughput() {
+            return requests.get() / (duration.toNanos() / 1e9d);
+        }
+
+        double getErrorRate() {
+            long total = requests.get();
+            return total == 0 ? 0 : (double) errors.get() / total;
+        }
+
+        /**
+         * @param percentile The percentile, such as {@code 99.9}
+         * @return The latency from the scheduled start, corrected for coordinated omission
+         */
+        Duration getLatency(double percentile) {
+            return Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(latency.getValueAtPercentile(percentile)));
+        }
+
+        /**
+         * @param percentile The percentile, such as {@code 99.9}
+         * @return The latency from when the request was actually sent
+         */
+        Duration getServiceTime(double percentile) {
+            return Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(serviceTime.getValueAtPercentile(percentile)));
+        }
+
+        long getRequests() {
+            return requests.get();
+        }
+
+        long getErrors() {
+            return errors.get();
+        }
+    }
+}
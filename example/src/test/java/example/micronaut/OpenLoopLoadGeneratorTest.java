@@ -0,0 +1,33 @@
+package example.micronaut;
+
+import io.reactivex.Flowable;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OpenLoopLoadGeneratorTest {
+
+    @Test
+    void testUnfinishedRequestsAreRecordedAsErrors() throws InterruptedException {
+        AtomicInteger sent = new AtomicInteger();
+        OpenLoopLoadGenerator.Result result = new OpenLoopLoadGenerator(100, Duration.ofMillis(200)).run(
+                Duration.ZERO,
+                Duration.ofMillis(200),
+                () -> sent.getAndIncrement() % 2 == 0 ? Flowable.empty() : Flowable.never()
+        );
+
+        assertEquals(
+                sent.get(),
+                result.getRequests()
+        );
+        assertEquals(
+                sent.get() / 2,
+                result.getErrors()
+        );
+        assertTrue(result.getLatency(100).compareTo(Duration.ofMillis(200)) >= 0);
+    }
+}
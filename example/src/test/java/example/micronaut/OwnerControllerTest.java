@@ -1,10 +1,14 @@
 package example.micronaut;
 
 import edu.umd.cs.findbugs.annotations.Nullable;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpResponse;
 import io.micronaut.http.HttpStatus;
 import io.micronaut.http.annotation.Body;
 import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.Header;
 import io.micronaut.http.annotation.Post;
+import io.micronaut.http.annotation.QueryValue;
 import io.micronaut.http.client.annotation.Client;
 import io.micronaut.http.client.exceptions.HttpClientResponseException;
 import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
@@ -48,6 +52,10 @@ public class OwnerControllerTest  {
         assertEquals(35, bob.getAge());
 
         assertEquals(3, ownerClient.getOwners().toList().blockingGet().size());
+        assertEquals(
+                "Bob",
+                ownerClient.search("bob", 1).iterator().next().getName()
+        );
     }
 
     @Test
@@ -68,17 +76,63 @@ public class OwnerControllerTest  {
         );
     }
 
+    @Test
+    void testCachedPets() {
+        for (int i = 0; i < 2; i++) {
+            HttpResponse<String> response = ownerClient.getPetsEncoded("Barney", "gzip");
+            assertEquals(
+                    HttpStatus.OK,
+                    response.status()
+            );
+            assertTrue(response.body().contains("Hoppy"));
+        }
+        assertEquals(
+                1,
+                ownerClient.getPets("Barney", null).size()
+        );
+    }
+
+    @Test
+    void testSearchOwners() {
+        Collection<Owner> owners = ownerClient.search("barn", 10);
+        assertEquals(
+                1,
+                owners.size()
+        );
+        assertEquals(
+                "Barney",
+                owners.iterator().next().getName()
+        );
+    }
+
+    @Test
+    void testDeadlineExceeded() {
+        HttpClientResponseException e = assertThrows(HttpClientResponseException.class, () ->
+                ownerClient.getPetsWithin("Barney", "0")
+        );
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, e.getStatus());
+    }
+
     @Client("/owners")
     interface OwnerClient {
         @Get("/")
         Flowable<Owner> getOwners();
 
+        @Get("/search")
+        Collection<Owner> search(@QueryValue String q, @QueryValue int limit);
+
         @Post("/")
         Single<Owner> add(@Body Owner owner);
 
         @Get("/{owner}/pets{?health}")
         Collection<Pet> getPets(String owner, @Nullable Pet.PetHealth health);
 
+        @Get("/{owner}/pets")
+        Collection<Pet> getPetsWithin(String owner, @Header("X-Request-Timeout") String timeout);
+
+        @Get("/{owner}/pets")
+        HttpResponse<String> getPetsEncoded(String owner, @Header(HttpHeaders.ACCEPT_ENCODING) String encoding);
+
         @Get("/{owner}/pets/{pet}")
         Pet getPet(String owner, String pet);
     }
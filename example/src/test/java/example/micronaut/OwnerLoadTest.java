@@ -0,0 +1,110 @@
+package example.micronaut;
+
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.client.RxHttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.reactivestreams.Publisher;
+
+import javax.inject.Inject;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives a constant arrival rate of owner and pet requests against an embedded
+ * database seeded with {@code loadtest.owners} owners, and fails if latency,
+ * throughput or errors regress past the thresholds in {@code loadtest.slo}.
+ * The thresholds depend on the machine, so run with {@code -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@MicronautTest(environments = "loadtest", transactional = false)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class OwnerLoadTest {
+    @Inject LoadTestConfiguration configuration;
+    @Inject OwnerRepository ownerRepository;
+    @Inject PetRepository petRepository;
+    @Inject @Client("/") RxHttpClient httpClient;
+
+    private final AtomicInteger addedOwners = new AtomicInteger();
+
+    @BeforeAll
+    void seed() {
+        for (int o = 0; o < configuration.getOwners(); o++) {
+            Owner owner = new Owner();
+            owner.setName("owner-" + o);
+            owner.setAge(18 + o % 70);
+            ownerRepository.save(owner);
+            List<Pet> pets = new ArrayList<>(configuration.getPetsPerOwner());
+            for (int p = 0; p < configuration.getPetsPerOwner(); p++) {
+                Pet pet = new Pet();
+                pet.setName("pet-" + p);
+                pet.setOwner(owner);
+                pets.add(pet);
+            }
+            petRepository.saveAll(pets);
+        }
+    }
+
+    @Test
+    void testLatencySlo() throws InterruptedException {
+        OpenLoopLoadGenerator.Result result = new OpenLoopLoadGenerator(configuration.getRate())
+                .run(configuration.getWarmup(), configuration.getDuration(), this::nextRequest);
+
+        System.out.printf("Requests: %d, errors: %d, throughput: %.1f req/s (target %d)%n",
+                result.getRequests(), result.getErrors(), result.getThroughput(), configuration.getRate());
+        for (double percentile : new double[] {50, 99, 99.9}) {
+            System.out.printf("p%s latency: %.2fms (service time %.2fms)%n",
+                    percentile,
+                    millis(result.getLatency(percentile)),
+                    millis(result.getServiceTime(percentile)));
+        }
+
+        LoadTestConfiguration.Slo slo = configuration.getSlo();
+        assertAll(
+                () -> assertTrue(result.getErrorRate() <= slo.getMaxErrorRate(),
+                        "Error rate " + result.getErrorRate() + " exceeds " + slo.getMaxErrorRate()),
+                () -> assertTrue(result.getThroughput() >= configuration.getRate() * 0.9,
+                        "Throughput " + result.getThroughput() + " is below the target rate"),
+                () -> assertSlo("p50", result.getLatency(50), slo.getP50()),
+                () -> assertSlo("p99", result.getLatency(99), slo.getP99()),
+                () -> assertSlo("p999", result.getLatency(99.9), slo.getP999())
+        );
+    }
+
+    private Publisher<?> nextRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String owner = "owner-" + random.nextInt(configuration.getOwners());
+        int pick = random.nextInt(100);
+        if (pick < 10) {
+            return httpClient.exchange(HttpRequest.GET("/owners"));
+        } else if (pick < 50) {
+            return httpClient.exchange(HttpRequest.GET("/owners/" + owner + "/pets"));
+        } else if (pick < 90) {
+            int pet = random.nextInt(Math.max(1, configuration.getPetsPerOwner()));
+            return httpClient.exchange(HttpRequest.GET("/owners/" + owner + "/pets/pet-" + pet));
+        } else {
+            Owner added = new Owner();
+            added.setName("added-" + addedOwners.incrementAndGet());
+            added.setAge(30);
+            return httpClient.exchange(HttpRequest.POST("/owners", added));
+        }
+    }
+
+    private static void assertSlo(String percentile, Duration actual, Duration threshold) {
+        assertTrue(actual.compareTo(threshold) <= 0,
+                percentile + " latency " + millis(actual) + "ms exceeds " + millis(threshold) + "ms");
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1e6d;
+    }
+}
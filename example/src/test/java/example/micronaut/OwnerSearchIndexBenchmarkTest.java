@@ -0,0 +1,76 @@
+package example.micronaut;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Reports the heap used by {@link OwnerSearchIndex} per million owners and the
+ * latency of prefix and fuzzy queries. Run with {@code -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class OwnerSearchIndexBenchmarkTest {
+    private static final int OWNERS = 1_000_000;
+    private static final int QUERIES = 1_000;
+    private static final String[] SYLLABLES = {
+            "ba", "be", "bo", "da", "de", "fre", "ja", "jo", "ka", "li",
+            "ma", "mi", "na", "ne", "ro", "sa", "ta", "to", "vi", "wil"
+    };
+
+    @Test
+    void benchmark() {
+        Random random = new Random(42);
+        Owner[] owners = new Owner[OWNERS];
+        for (int i = 0; i < OWNERS; i++) {
+            owners[i] = OwnerSearchIndexTest.owner(randomName(random));
+            owners[i].setId((long) i);
+        }
+
+        long before = usedHeap();
+        OwnerSearchIndex index = new OwnerSearchIndex();
+        index.rebuild(Arrays.asList(owners));
+        long after = usedHeap();
+        System.out.printf("Index heap per million owners: %.1f MB%n",
+                (after - before) / (1024d * 1024d) * 1_000_000 / OWNERS);
+
+        report("prefix", index, random, false);
+        report("fuzzy", index, random, true);
+    }
+
+    private static void report(String kind, OwnerSearchIndex index, Random random, boolean misspell) {
+        long[] latencies = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String query = randomName(random);
+            query = misspell ? query.substring(1) : query.substring(0, Math.min(4, query.length()));
+            long start = System.nanoTime();
+            index.search(query, 10);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%s query latency: p50=%dus p99=%dus max=%dus%n",
+                kind,
+                latencies[QUERIES / 2] / 1000,
+                latencies[QUERIES * 99 / 100] / 1000,
+                latencies[QUERIES - 1] / 1000);
+    }
+
+    private static String randomName(Random random) {
+        StringBuilder name = new StringBuilder();
+        int syllables = 2 + random.nextInt(3);
+        for (int i = 0; i < syllables; i++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,81 @@
+package example.micronaut;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OwnerSearchIndexTest {
+
+    @Test
+    void testRanking() {
+        OwnerSearchIndex index = new OwnerSearchIndex();
+        index.rebuild(Arrays.asList(
+                owner("Bob"),
+                owner("Bobby"),
+                owner("Jimbob"),
+                owner("Barney")
+        ));
+
+        assertEquals(
+                Arrays.asList("Bob", "Bobby", "Jimbob"),
+                names(index.search("bob", 10))
+        );
+        assertEquals(
+                Arrays.asList("Bob"),
+                names(index.search("BOB", 1))
+        );
+    }
+
+    @Test
+    void testPrefixAndFuzzy() {
+        OwnerSearchIndex index = new OwnerSearchIndex();
+        index.rebuild(Arrays.asList(owner("Fred"), owner("Barney")));
+
+        assertEquals(Arrays.asList("Barney"), names(index.search("ba", 10)));
+        assertEquals(Arrays.asList("Barney"), names(index.search("barnie", 10)));
+        assertTrue(index.search("wilma", 10).isEmpty());
+        assertTrue(index.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    void testShortSubstring() {
+        OwnerSearchIndex index = new OwnerSearchIndex();
+        index.rebuild(Arrays.asList(owner("Bob"), owner("Obelix"), owner("Fred")));
+
+        assertEquals(
+                Arrays.asList("Obelix", "Bob"),
+                names(index.search("ob", 10))
+        );
+        assertEquals(
+                Arrays.asList("Fred"),
+                names(index.search("e", 1))
+        );
+    }
+
+    @Test
+    void testIncrementalAdd() {
+        OwnerSearchIndex index = new OwnerSearchIndex();
+        index.rebuild(Arrays.asList(owner("Fred")));
+        assertTrue(index.search("wil", 10).isEmpty());
+
+        index.add(owner("Wilma"));
+
+        assertEquals(2, index.size());
+        assertEquals(Arrays.asList("Wilma"), names(index.search("wil", 10)));
+    }
+
+    static Owner owner(String name) {
+        Owner owner = new Owner();
+        owner.setName(name);
+        owner.setAge(30);
+        return owner;
+    }
+
+    private static List<String> names(List<Owner> owners) {
+        return owners.stream().map(Owner::getName).collect(Collectors.toList());
+    }
+}
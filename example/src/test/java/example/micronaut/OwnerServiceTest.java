@@ -15,6 +15,7 @@ import static org.junit.jupiter.api.Assertions.*;
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 public class OwnerServiceTest implements TestPropertyProvider {
     @Inject OwnerService ownerService;
+    @Inject PetHealthStatistics petHealthStatistics;
 
     @Override
     public Map<String, String> getProperties() {
@@ -62,4 +63,32 @@ public class OwnerServiceTest implements TestPropertyProvider {
                 pets.iterator().next().getName()
         );
     }
+
+    @Test
+    void testAddedOwnerNotSearchableBeforeCommit() {
+        Long owners = petHealthStatistics.getStatistics(0).getAgeDistribution().get("30-39");
+        Owner owner = new Owner();
+        owner.setName("Wilma");
+        owner.setAge(32);
+        // the test transaction is rolled back, so the owner is never committed
+        ownerService.addOwner(owner);
+        assertTrue(
+                ownerService.searchOwners("Wilma", 10).isEmpty()
+        );
+        assertEquals(
+                owners,
+                petHealthStatistics.getStatistics(0).getAgeDistribution().get("30-39")
+        );
+    }
+
+    @Test
+    void testHealthChangeNotCountedBeforeCommit() {
+        Long requiresVaccination = petHealthStatistics.getStatistics(0).getTotals().get(Pet.PetHealth.REQUIRES_VACCINATION);
+        // the test transaction is rolled back, so the change is never committed
+        ownerService.updatePetHealth("Barney", "Hoppy", Pet.PetHealth.REQUIRES_VACCINATION);
+        assertEquals(
+                requiresVaccination,
+                petHealthStatistics.getStatistics(0).getTotals().get(Pet.PetHealth.REQUIRES_VACCINATION)
+        );
+    }
 }
@@ -0,0 +1,71 @@
+package example.micronaut;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Reports the heap used by an {@link OwnerSnapshot} per million pets, compared
+ * with the same data held as entities. Run with {@code -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class OwnerSnapshotBenchmarkTest {
+    private static final int PETS = 1_000_000;
+    private static final int PETS_PER_OWNER = 4;
+    private static final String[] PET_NAMES = {
+            "Dino", "Hoppy", "Baby Puss", "Rex", "Fluffy", "Spot", "Tiger", "Bella"
+    };
+
+    @Test
+    void benchmark() {
+        Random random = new Random(42);
+        long before = usedHeap();
+        List<Owner> owners = new ArrayList<>();
+        List<Pet> pets = new ArrayList<>();
+        for (int i = 0; i < PETS; i++) {
+            if (i % PETS_PER_OWNER == 0) {
+                owners.add(OwnerSnapshotTest.owner((long) owners.size(), "Owner " + owners.size(), 18 + random.nextInt(80)));
+            }
+            pets.add(OwnerSnapshotTest.pet(
+                    (long) i,
+                    new String(PET_NAMES[random.nextInt(PET_NAMES.length)]),
+                    owners.get(owners.size() - 1),
+                    random.nextInt(10) == 0 ? Pet.PetHealth.REQUIRES_VACCINATION : Pet.PetHealth.VACCINATED
+            ));
+        }
+        long entities = usedHeap() - before;
+
+        OwnerSnapshot.Builder builder = OwnerSnapshot.builder();
+        int pet = 0;
+        for (Owner owner : owners) {
+            builder.owner(owner.getId(), owner.getName(), owner.getAge());
+            for (; pet < pets.size() && pets.get(pet).getOwner() == owner; pet++) {
+                builder.pet(pets.get(pet).getId(), pets.get(pet).getName(), pets.get(pet).getHealth());
+            }
+        }
+        OwnerSnapshot snapshot = builder.build();
+        // names are shared with the entities, so drop those before measuring
+        owners.clear();
+        pets.clear();
+        long snapshotBytes = usedHeap() - before;
+
+        System.out.printf("Entities heap per million pets: %.1f MB%n", perMillionPets(entities));
+        System.out.printf("Snapshot heap per million pets: %.1f MB (%d owners, %d pets)%n",
+                perMillionPets(snapshotBytes), snapshot.ownerCount(), snapshot.petCount());
+    }
+
+    private static double perMillionPets(long bytes) {
+        return bytes / (1024d * 1024d) * 1_000_000 / PETS;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
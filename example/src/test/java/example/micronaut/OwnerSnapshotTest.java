@@ -0,0 +1,81 @@
+package example.micronaut;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OwnerSnapshotTest {
+
+    @Test
+    void testSnapshot() {
+        // owners out of name order are sorted when the snapshot is built
+        OwnerSnapshot snapshot = OwnerSnapshot.builder()
+                .owner(1L, "Fred", 35)
+                .pet(1L, "Dino", Pet.PetHealth.VACCINATED)
+                .pet(3L, "Baby Puss", Pet.PetHealth.REQUIRES_VACCINATION)
+                .owner(2L, "Barney", 30)
+                .pet(2L, "Hoppy", Pet.PetHealth.VACCINATED)
+                .owner(4L, "Wilma", 32)
+                .build();
+
+        assertEquals(3, snapshot.ownerCount());
+        assertEquals(3, snapshot.petCount());
+        assertEquals(
+                Arrays.asList("Barney", "Fred", "Wilma"),
+                snapshot.getOwners().stream().map(Owner::getName).collect(Collectors.toList())
+        );
+
+        Collection<Pet> pets = snapshot.getPets("Fred", null);
+        assertEquals(
+                Arrays.asList("Dino", "Baby Puss"),
+                pets.stream().map(Pet::getName).collect(Collectors.toList())
+        );
+        assertEquals(
+                "Baby Puss",
+                snapshot.getPets("Fred", Pet.PetHealth.REQUIRES_VACCINATION).iterator().next().getName()
+        );
+        assertTrue(snapshot.getPets("Wilma", null).isEmpty());
+        assertTrue(snapshot.getPets("Betty", null).isEmpty());
+
+        Pet hoppy = snapshot.getPet("Barney", "Hoppy");
+        assertEquals(2L, hoppy.getId());
+        assertEquals("Barney", hoppy.getOwner().getName());
+        assertEquals(30, hoppy.getOwner().getAge());
+        assertNull(snapshot.getPet("Barney", "Dino"));
+    }
+
+    @Test
+    void testIdsBeyondIntRange() {
+        long ownerId = Integer.MAX_VALUE + 3L;
+        long petId = 1L << 40;
+        OwnerSnapshot snapshot = OwnerSnapshot.builder()
+                .owner(ownerId, "Fred", 35)
+                .pet(petId, "Dino", Pet.PetHealth.VACCINATED)
+                .build();
+
+        Pet dino = snapshot.getPet("Fred", "Dino");
+        assertEquals(petId, dino.getId());
+        assertEquals(ownerId, dino.getOwner().getId());
+    }
+
+    static Owner owner(Long id, String name, int age) {
+        Owner owner = new Owner();
+        owner.setId(id);
+        owner.setName(name);
+        owner.setAge(age);
+        return owner;
+    }
+
+    static Pet pet(Long id, String name, Owner owner, Pet.PetHealth health) {
+        Pet pet = new Pet();
+        pet.setId(id);
+        pet.setName(name);
+        pet.setOwner(owner);
+        pet.setHealth(health);
+        return pet;
+    }
+}
@@ -0,0 +1,123 @@
+package example.micronaut;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PetHealthStatisticsTest {
+
+    @Test
+    void testIncrementalAndReconcile() {
+        PetHealthStatistics statistics = new PetHealthStatistics(new PetStatisticsRepository(null) {
+            @Override
+            public List<Object[]> countPetsByOwnerAndHealth() {
+                return Arrays.asList(
+                        new Object[] {1L, "Fred", Pet.PetHealth.VACCINATED, 2L},
+                        new Object[] {2L, "Barney", Pet.PetHealth.REQUIRES_VACCINATION, 1L}
+                );
+            }
+
+            @Override
+            public List<Object[]> countOwnersByAge() {
+                return Arrays.asList(
+                        new Object[] {35, 1L},
+                        new Object[] {30, 1L}
+                );
+            }
+        }, new ShardRouter(null, new ShardConfiguration()));
+
+        Owner wilma = OwnerSnapshotTest.owner(3L, "Wilma", 42);
+        statistics.ownerAdded(wilma);
+        statistics.petAdded(OwnerSnapshotTest.pet(1L, "Dino", wilma, Pet.PetHealth.REQUIRES_VACCINATION));
+        statistics.petAdded(OwnerSnapshotTest.pet(2L, "Puss", wilma, Pet.PetHealth.REQUIRES_VACCINATION));
+
+        HealthStatistics health = statistics.getStatistics(10);
+        assertEquals(2L, health.getTotals().get(Pet.PetHealth.REQUIRES_VACCINATION));
+        assertEquals(0L, health.getTotals().get(Pet.PetHealth.VACCINATED));
+        assertEquals(1, health.getOwners().size());
+        assertEquals(1L, health.getAgeDistribution().get("40-49"));
+
+        statistics.reconcile();
+
+        health = statistics.getStatistics(1);
+        assertEquals(1L, health.getTotals().get(Pet.PetHealth.REQUIRES_VACCINATION));
+        assertEquals(2L, health.getTotals().get(Pet.PetHealth.VACCINATED));
+        assertEquals(1, health.getOwners().size());
+        assertEquals("Barney", health.getOwners().get(0).getName());
+        assertNull(health.getAgeDistribution().get("40-49"));
+        assertEquals(2L, health.getAgeDistribution().get("30-39"));
+    }
+
+    @Test
+    void testHealthChangesMoveOwners() {
+        PetHealthStatistics statistics = new PetHealthStatistics(null, new ShardRouter(null, new ShardConfiguration()));
+        Owner fred = OwnerSnapshotTest.owner(1L, "Fred", 35);
+        Owner barney = OwnerSnapshotTest.owner(2L, "Barney", 30);
+        // a second owner of the same name is counted separately
+        Owner otherFred = OwnerSnapshotTest.owner(3L, "Fred", 60);
+        Pet dino = OwnerSnapshotTest.pet(1L, "Dino", fred, Pet.PetHealth.REQUIRES_VACCINATION);
+        Pet puss = OwnerSnapshotTest.pet(2L, "Puss", fred, Pet.PetHealth.REQUIRES_VACCINATION);
+        statistics.petAdded(dino);
+        statistics.petAdded(puss);
+        statistics.petAdded(OwnerSnapshotTest.pet(3L, "Hoppy", barney, Pet.PetHealth.REQUIRES_VACCINATION));
+        statistics.petAdded(OwnerSnapshotTest.pet(4L, "Bam", otherFred, Pet.PetHealth.VACCINATED));
+
+        HealthStatistics health = statistics.getStatistics(10);
+        assertEquals(
+                Arrays.asList("Fred", "Barney", "Fred"),
+                health.getOwners().stream().map(HealthStatistics.OwnerHealth::getName).collect(Collectors.toList())
+        );
+        assertEquals(2L, health.getOwners().get(0).getPets().get(Pet.PetHealth.REQUIRES_VACCINATION));
+        assertEquals(1L, health.getOwners().get(2).getPets().get(Pet.PetHealth.VACCINATED));
+
+        statistics.petHealthChanged(dino, Pet.PetHealth.VACCINATED);
+        statistics.petHealthChanged(puss, Pet.PetHealth.VACCINATED);
+
+        health = statistics.getStatistics(10);
+        assertEquals(1L, health.getTotals().get(Pet.PetHealth.REQUIRES_VACCINATION));
+        assertEquals(3L, health.getTotals().get(Pet.PetHealth.VACCINATED));
+        assertEquals(
+                Arrays.asList("Barney", "Fred", "Fred"),
+                health.getOwners().stream().map(HealthStatistics.OwnerHealth::getName).collect(Collectors.toList())
+        );
+        assertEquals(0L, health.getOwners().get(1).getPets().get(Pet.PetHealth.REQUIRES_VACCINATION));
+        assertEquals(2L, health.getOwners().get(1).getPets().get(Pet.PetHealth.VACCINATED));
+    }
+
+    @Test
+    void testRankingIsBounded() {
+        PetHealthStatistics statistics = new PetHealthStatistics(null, new ShardRouter(null, new ShardConfiguration()));
+        int owners = PetHealthStatistics.MAX_TOP_OWNERS * 3;
+        for (int i = 0; i < owners; i++) {
+            Owner owner = OwnerSnapshotTest.owner((long) i, String.format("Owner %03d", i), 30);
+            statistics.petAdded(OwnerSnapshotTest.pet((long) i, "Dino", owner, Pet.PetHealth.VACCINATED));
+            // owners added later overtake earlier ones, which must then leave the ranking
+            for (int p = 0; p < i % 7; p++) {
+                statistics.petAdded(OwnerSnapshotTest.pet((long) i, "Puss", owner, Pet.PetHealth.REQUIRES_VACCINATION));
+            }
+        }
+
+        List<String> expected = new ArrayList<>();
+        for (int count = 6; count >= 0 && expected.size() < PetHealthStatistics.MAX_TOP_OWNERS; count--) {
+            for (int i = 0; i < owners && expected.size() < PetHealthStatistics.MAX_TOP_OWNERS; i++) {
+                if (i % 7 == count) {
+                    expected.add(String.format("Owner %03d", i));
+                }
+            }
+        }
+        HealthStatistics health = statistics.getStatistics(1000);
+        assertEquals(
+                expected,
+                health.getOwners().stream().map(HealthStatistics.OwnerHealth::getName).collect(Collectors.toList())
+        );
+        assertEquals(
+                6L,
+                health.getOwners().get(0).getPets().get(Pet.PetHealth.REQUIRES_VACCINATION)
+        );
+    }
+}
@@ -0,0 +1,194 @@
+package example.micronaut;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseCacheTest {
+
+    @Test
+    void testEncodesEachEncodingOnDemand() throws IOException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ResponseCache cache = new ResponseCache(new ObjectMapper(), new ResponseCacheConfiguration(), meterRegistry);
+
+        assertFalse(cache.get("/owners", false).isPresent());
+        ByteBuf miss = cache.put("/owners", List.of("Fred", "Barney"), cache.generation(), false).orElseThrow();
+        assertEquals(
+                "[\"Fred\",\"Barney\"]",
+                miss.toString(StandardCharsets.UTF_8)
+        );
+        miss.release();
+
+        ByteBuf identity = cache.get("/owners", false).orElseThrow();
+        assertEquals(
+                "[\"Fred\",\"Barney\"]",
+                identity.toString(StandardCharsets.UTF_8)
+        );
+        identity.release();
+        assertEquals(1, cache.size());
+
+        // the gzip encoding is only produced once a client asks for it
+        assertFalse(cache.get("/owners", true).isPresent());
+        cache.put("/owners", List.of("Fred", "Barney"), cache.generation(), true).orElseThrow().release();
+        assertEquals(2, cache.size());
+        ByteBuf gzip = cache.get("/owners", true).orElseThrow();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteBufInputStream(gzip, true))) {
+            assertEquals(
+                    "[\"Fred\",\"Barney\"]",
+                    new String(in.readAllBytes(), StandardCharsets.UTF_8)
+            );
+        }
+
+        assertEquals(
+                2d / 4,
+                meterRegistry.get("response.cache.hit.ratio").gauge().value(),
+                0.001d
+        );
+        assertTrue(meterRegistry.get("response.cache.bytes").gauge().value() > 0);
+        cache.invalidateAll();
+        assertEquals(0L, cache.bytes());
+    }
+
+    @Test
+    void testWritesInvalidate() throws IOException {
+        ResponseCache cache = new ResponseCache(new ObjectMapper(), new ResponseCacheConfiguration(), new SimpleMeterRegistry());
+        cache.put("/owners", List.of("Fred"), cache.generation(), false).orElseThrow().release();
+        ByteBuf held = cache.get("/owners", false).orElseThrow();
+
+        // a response read before a write must not be cached after it
+        long generation = cache.generation();
+        cache.writeStarted();
+        assertFalse(cache.get("/owners", false).isPresent());
+        assertEquals(
+                Optional.empty(),
+                cache.put("/owners", List.of("Fred"), cache.generation(), false)
+        );
+        assertEquals(0, cache.size());
+        cache.writeCompleted();
+        assertEquals(
+                Optional.empty(),
+                cache.put("/owners", List.of("Fred"), generation, false)
+        );
+        assertEquals(0, cache.size());
+
+        // buffers handed out before the invalidation stay readable until released
+        assertEquals(
+                "[\"Fred\"]",
+                held.toString(StandardCharsets.UTF_8)
+        );
+        assertTrue(held.release());
+    }
+
+    @Test
+    void testBounds() throws IOException {
+        ResponseCacheConfiguration configuration = new ResponseCacheConfiguration();
+        configuration.setMaxEntries(2);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ResponseCache cache = new ResponseCache(new ObjectMapper(), configuration, meterRegistry);
+
+        for (int i = 0; i < 3; i++) {
+            cache.put("/owners/" + i + "/pets", List.of("Dino"), cache.generation(), false).orElseThrow().release();
+        }
+        assertEquals(2, cache.size());
+        assertEquals(Optional.empty(), cache.get("/owners/0/pets", false));
+        assertEquals(
+                1d,
+                meterRegistry.get("response.cache.evictions").functionCounter().count()
+        );
+
+        long entrySize = cache.bytes() / 2;
+        configuration.setMaxBytes(entrySize * 2 - 1);
+        cache.put("/owners/3/pets", List.of("Dino"), cache.generation(), false).orElseThrow().release();
+        assertEquals(1, cache.size());
+        assertTrue(cache.bytes() <= configuration.getMaxBytes());
+        cache.invalidateAll();
+    }
+
+    @Test
+    void testEntriesExpire() throws IOException, InterruptedException {
+        ResponseCacheConfiguration configuration = new ResponseCacheConfiguration();
+        configuration.setMaxAge(Duration.ofMillis(50));
+        ResponseCache cache = new ResponseCache(new ObjectMapper(), configuration, new SimpleMeterRegistry());
+        cache.put("/owners", List.of("Fred"), cache.generation(), false).orElseThrow().release();
+        ByteBuf held = cache.get("/owners", false).orElseThrow();
+
+        Thread.sleep(100);
+        assertFalse(cache.get("/owners", false).isPresent());
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.bytes());
+        assertTrue(held.release());
+    }
+
+    @Test
+    void testAcceptEncoding() {
+        assertTrue(ResponseCacheFilter.acceptsGzip(List.of("gzip, deflate")));
+        assertTrue(ResponseCacheFilter.acceptsGzip(List.of("deflate", "GZIP;q=0.5")));
+        assertTrue(ResponseCacheFilter.acceptsGzip(List.of("*")));
+        assertFalse(ResponseCacheFilter.acceptsGzip(List.of()));
+        assertFalse(ResponseCacheFilter.acceptsGzip(List.of("gzip;q=0")));
+        assertFalse(ResponseCacheFilter.acceptsGzip(List.of("gzip ; q=0.0, *")));
+        assertFalse(ResponseCacheFilter.acceptsGzip(List.of("*;q=0")));
+        assertFalse(ResponseCacheFilter.acceptsGzip(List.of("x-gzip-like")));
+    }
+
+    @Test
+    void testConcurrentGetAndInvalidate() throws Exception {
+        ResponseCache cache = new ResponseCache(new ObjectMapper(), new ResponseCacheConfiguration(), new SimpleMeterRegistry());
+        List<String> body = List.of("Fred", "Barney", "Wilma", "Betty");
+        String expected = new ObjectMapper().writeValueAsString(body);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> readers = new ArrayList<>();
+            for (int t = 0; t < 3; t++) {
+                readers.add(executor.submit(() -> {
+                    int hits = 0;
+                    for (int i = 0; i < 100_000; i++) {
+                        Optional<ByteBuf> cached = cache.get("/owners", false);
+                        if (cached.isPresent()) {
+                            // a buffer released and recycled by the cache would hold another body
+                            assertEquals(
+                                    expected,
+                                    cached.get().toString(StandardCharsets.UTF_8)
+                            );
+                            cached.get().release();
+                            hits++;
+                        }
+                    }
+                    return hits;
+                }));
+            }
+            Future<?> writer = executor.submit(() -> {
+                while (readers.stream().anyMatch(reader -> !reader.isDone())) {
+                    cache.put("/owners", body, cache.generation(), false).ifPresent(ByteBuf::release);
+                    cache.put("/owners/1/pets", List.of("Dino"), cache.generation(), false).ifPresent(ByteBuf::release);
+                    cache.invalidateAll();
+                }
+                return null;
+            });
+            for (Future<Integer> reader : readers) {
+                reader.get(1, TimeUnit.MINUTES);
+            }
+            writer.get(1, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.bytes());
+    }
+}
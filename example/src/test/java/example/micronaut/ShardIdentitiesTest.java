@@ -0,0 +1,41 @@
+package example.micronaut;
+
+import db.migration.V2__Shard_identities;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ShardIdentitiesTest {
+
+    @Test
+    void testEmptyTablesStartAtTheShard() {
+        assertEquals(
+                1,
+                V2__Shard_identities.start(0, 1, 3)
+        );
+        assertEquals(
+                3,
+                V2__Shard_identities.start(0, 3, 3)
+        );
+    }
+
+    @Test
+    void testStartAboveExistingIds() {
+        assertEquals(
+                13,
+                V2__Shard_identities.start(10, 1, 3)
+        );
+        assertEquals(
+                11,
+                V2__Shard_identities.start(10, 2, 3)
+        );
+        assertEquals(
+                12,
+                V2__Shard_identities.start(10, 3, 3)
+        );
+        assertEquals(
+                12,
+                V2__Shard_identities.start(11, 3, 3)
+        );
+    }
+}
@@ -0,0 +1,128 @@
+package example.micronaut;
+
+import io.micronaut.health.HealthStatus;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.micronaut.transaction.jdbc.DelegatingDataSource;
+import io.reactivex.Flowable;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest(environments = "sharded", transactional = false)
+public class ShardedOwnerServiceTest {
+    @Inject OwnerOperations ownerOperations;
+    @Inject ShardRouter shardRouter;
+    @Inject DataSource dataSource;
+    @Inject PetHealthIndicator petHealthIndicator;
+    @Inject PetHealthStatistics petHealthStatistics;
+
+    @Test
+    void testOwnersArePartitioned() throws SQLException {
+        assertTrue(ownerOperations instanceof ShardedOwnerService);
+        for (int i = 0; i < 30; i++) {
+            Owner owner = new Owner();
+            owner.setName("Owner " + i);
+            owner.setAge(40);
+            ownerOperations.addOwner(owner);
+        }
+
+        Collection<Owner> owners = ownerOperations.getInitialOwners();
+        Set<String> names = owners.stream().map(Owner::getName).collect(Collectors.toSet());
+        assertEquals(
+                owners.size(),
+                names.size()
+        );
+        assertTrue(names.containsAll(List.of("Fred", "Barney", "Owner 0", "Owner 29")));
+
+        int total = 0;
+        for (String shard : shardRouter.getShards()) {
+            List<String> stored = ownerNames(shard);
+            assertFalse(stored.isEmpty(), "Shard " + shard + " holds no owners");
+            for (String name : stored) {
+                assertEquals(shard, shardRouter.shardFor(name));
+            }
+            total += stored.size();
+        }
+        assertEquals(owners.size(), total);
+        assertEquals(
+                owners.size(),
+                owners.stream().map(Owner::getId).distinct().count()
+        );
+    }
+
+    @Test
+    void testPetsAreRoutedByOwner() {
+        Collection<Pet> pets = ownerOperations.getPets("Fred");
+        assertEquals(
+                2,
+                pets.size()
+        );
+        assertEquals(
+                "Hoppy",
+                ownerOperations.getPet("Barney", "Hoppy").getName()
+        );
+        assertEquals(
+                1,
+                ownerOperations.getPetsWithHeath("Barney", Pet.PetHealth.VACCINATED).size()
+        );
+    }
+
+    @Test
+    void testPetHealthIsUpdatedInTheOwnersShard() {
+        // Barney is not held by the default data source, which unrouted writes would go to
+        assertNotEquals(ShardRouter.DEFAULT_SHARD, shardRouter.shardFor("Barney"));
+        assertEquals(HealthStatus.UP, petHealth());
+        long requiresVaccination = requiresVaccination();
+
+        ownerOperations.updatePetHealth("Barney", "Hoppy", Pet.PetHealth.REQUIRES_VACCINATION);
+        try {
+            // applied to the statistics once committed, without waiting for a rebuild
+            assertEquals(
+                    requiresVaccination + 1,
+                    requiresVaccination()
+            );
+            assertEquals(
+                    Pet.PetHealth.REQUIRES_VACCINATION,
+                    ownerOperations.getPet("Barney", "Hoppy").getHealth()
+            );
+            assertEquals(HealthStatus.DOWN, petHealth());
+        } finally {
+            ownerOperations.updatePetHealth("Barney", "Hoppy", Pet.PetHealth.VACCINATED);
+        }
+    }
+
+    private long requiresVaccination() {
+        return petHealthStatistics.getStatistics(0).getTotals().get(Pet.PetHealth.REQUIRES_VACCINATION);
+    }
+
+    private HealthStatus petHealth() {
+        return Flowable.fromPublisher(petHealthIndicator.getResult()).blockingFirst().getStatus();
+    }
+
+    private List<String> ownerNames(String shard) throws SQLException {
+        DataSource shardDataSource = shard.equals(ShardRouter.DEFAULT_SHARD)
+                ? DelegatingDataSource.unwrapDataSource(dataSource)
+                : shardRouter.dataSource(shard);
+        try (Connection connection = shardDataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT name FROM owner")) {
+            List<String> names = new ArrayList<>();
+            while (resultSet.next()) {
+                names.add(resultSet.getString(1));
+            }
+            return names;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package example.micronaut;
+
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.context.env.Environment;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest(transactional = false)
+public class SlowQueriesEndpointTest {
+
+    @Inject @Client("/")
+    HttpClient httpClient;
+
+    @Test
+    void testSensitiveOnlyWhenCapturingParameters() {
+        assertEquals(
+                HttpStatus.OK,
+                httpClient.toBlocking().exchange("/slowqueries").status()
+        );
+
+        try (ApplicationContext context = ApplicationContext.builder()
+                .properties(Map.of("sql.instrumentation.capture-parameters", true))
+                .build()) {
+            Environment environment = context.getEnvironment().start();
+            assertEquals(
+                    true,
+                    environment.getProperty("endpoints.slowqueries.sensitive", Boolean.class).orElse(false)
+            );
+        }
+    }
+}
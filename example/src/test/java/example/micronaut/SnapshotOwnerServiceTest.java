@@ -0,0 +1,55 @@
+package example.micronaut;
+
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest(environments = "snapshot", transactional = false)
+public class SnapshotOwnerServiceTest {
+    @Inject OwnerOperations ownerOperations;
+    @Inject PetRepository petRepository;
+
+    @Test
+    void testReadsFromSnapshotUntilRefresh() {
+        assertTrue(ownerOperations instanceof SnapshotOwnerService);
+        SnapshotOwnerService snapshotOwnerService = (SnapshotOwnerService) ownerOperations;
+        assertEquals(
+                2,
+                ownerOperations.getPets("Fred").size()
+        );
+
+        Owner wilma = new Owner();
+        wilma.setName("Wilma");
+        wilma.setAge(32);
+        ownerOperations.addOwner(wilma);
+        Pet dino = new Pet();
+        dino.setName("Dino II");
+        dino.setOwner(wilma);
+        petRepository.save(dino);
+
+        assertFalse(names(ownerOperations.getInitialOwners()).contains("Wilma"));
+        assertTrue(ownerOperations.getPets("Wilma").isEmpty());
+        assertNull(ownerOperations.getPet("Wilma", "Dino II"));
+
+        snapshotOwnerService.refresh();
+
+        assertTrue(names(ownerOperations.getInitialOwners()).contains("Wilma"));
+        assertEquals(
+                "Dino II",
+                ownerOperations.getPet("Wilma", "Dino II").getName()
+        );
+        assertEquals(
+                1,
+                ownerOperations.getPetsWithHeath("Wilma", Pet.PetHealth.VACCINATED).size()
+        );
+    }
+
+    private static Collection<String> names(Collection<Owner> owners) {
+        return owners.stream().map(Owner::getName).collect(Collectors.toList());
+    }
+}
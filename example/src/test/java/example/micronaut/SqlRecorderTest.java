@@ -0,0 +1,64 @@
+package example.micronaut;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.context.ServerRequestContext;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqlRecorderTest {
+
+    @Test
+    void testSlowQueries() {
+        SqlInstrumentationConfiguration configuration = new SqlInstrumentationConfiguration();
+        configuration.setSlowQueryThreshold(Duration.ofMillis(10));
+        configuration.setSlowQueryCapacity(2);
+        SqlRecorder recorder = new SqlRecorder(new SimpleMeterRegistry(), configuration);
+
+        String previous = recorder.repositoryMethodStarted("PetRepository.findByOwnerName");
+        recorder.statementExecuted("select 1", new Object[] {"Fred", null, null, null}, 1, Duration.ofMillis(20).toNanos());
+        recorder.statementExecuted("select 2", null, 0, Duration.ofMillis(1).toNanos());
+        recorder.repositoryMethodCompleted("PetRepository.findByOwnerName", previous, 0, 2);
+        recorder.statementExecuted("select 3", null, 0, Duration.ofMillis(30).toNanos());
+        recorder.statementExecuted("select 4", null, 0, Duration.ofMillis(15).toNanos());
+
+        List<SlowQuery> slowQueries = recorder.getSlowQueries();
+        assertEquals(2, slowQueries.size());
+        assertEquals("select 3", slowQueries.get(0).getSql());
+        assertEquals("none", slowQueries.get(0).getRepositoryMethod());
+        assertEquals("select 4", slowQueries.get(1).getSql());
+
+        recorder = new SqlRecorder(new SimpleMeterRegistry(), configuration);
+        recorder.statementExecuted("select 1", new Object[] {"Fred", null, null, null}, 1, Duration.ofMillis(20).toNanos());
+        assertEquals(List.of("?"), recorder.getSlowQueries().get(0).getParameters());
+
+        configuration.setCaptureParameters(true);
+        recorder = new SqlRecorder(new SimpleMeterRegistry(), configuration);
+        recorder.statementExecuted("select 1", new Object[] {"Fred", null, null, null}, 1, Duration.ofMillis(20).toNanos());
+        assertEquals(List.of("Fred"), recorder.getSlowQueries().get(0).getParameters());
+    }
+
+    @Test
+    void testStatementThreshold() {
+        SqlInstrumentationConfiguration configuration = new SqlInstrumentationConfiguration();
+        configuration.setStatementThreshold(2);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SqlRecorder recorder = new SqlRecorder(meterRegistry, configuration);
+
+        HttpRequest<?> request = HttpRequest.GET("/owners");
+        recorder.requestStarted(request);
+        ServerRequestContext.with(request, () -> {
+            for (int i = 0; i < 3; i++) {
+                recorder.statementExecuted("select " + i, null, 0, 0);
+            }
+        });
+
+        assertEquals(Optional.of(3), recorder.requestCompleted(request, "/owners"));
+        assertEquals(1, meterRegistry.counter("http.server.sql.excessive", "uri", "/owners").count());
+    }
+}
@@ -0,0 +1,44 @@
+package example.micronaut;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@MicronautTest(transactional = false)
+public class SqlStatementCountFilterTest {
+
+    @Inject @Client("/")
+    HttpClient httpClient;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Test
+    void testCountRecordedOnceResponseWritten() throws InterruptedException {
+        long before = requests();
+        assertEquals(
+                HttpStatus.OK,
+                httpClient.toBlocking().exchange("/owners/Fred/pets").status()
+        );
+        // recorded when the server has finished writing, which may be after the client has read the response
+        for (int i = 0; i < 100 && requests() == before; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(before + 1, requests());
+    }
+
+    private long requests() {
+        DistributionSummary summary = meterRegistry.find("http.server.sql.statements")
+                .tag("uri", "/owners/{owner}/pets{?health}")
+                .summary();
+        return summary == null ? 0 : summary.count();
+    }
+}